@@ -10,9 +10,13 @@ package hellfirepvp.modularmachinery;
 
 import hellfirepvp.modularmachinery.common.CommonProxy;
 import hellfirepvp.modularmachinery.common.command.CommandHand;
+import hellfirepvp.modularmachinery.common.command.CommandProfile;
 import hellfirepvp.modularmachinery.common.command.CommandSyntax;
+import hellfirepvp.modularmachinery.common.machine.MachineRegistry;
 import hellfirepvp.modularmachinery.common.network.PktCopyToClipboard;
 import hellfirepvp.modularmachinery.common.network.PktSyncSelection;
+import hellfirepvp.modularmachinery.common.network.PktSyncTileFields;
+import hellfirepvp.modularmachinery.common.profiling.MetricsExporter;
 import net.minecraft.launchwrapper.Launch;
 import net.minecraft.nbt.JsonToNBT;
 import net.minecraftforge.fluids.FluidRegistry;
@@ -20,9 +24,11 @@ import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLModIdMappingEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppingEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import net.minecraftforge.fml.relauncher.Side;
@@ -70,6 +76,7 @@ public class ModularMachinery {
 
         NET_CHANNEL.registerMessage(PktCopyToClipboard.class, PktCopyToClipboard.class, 0, Side.CLIENT);
         NET_CHANNEL.registerMessage(PktSyncSelection.class, PktSyncSelection.class, 1, Side.CLIENT);
+        NET_CHANNEL.registerMessage(PktSyncTileFields.class, PktSyncTileFields.class, 2, Side.CLIENT);
 
         proxy.loadModData(event.getModConfigurationDirectory());
 
@@ -91,6 +98,20 @@ public class ModularMachinery {
         //Cmd registration
         event.registerServerCommand(new CommandSyntax());
         event.registerServerCommand(new CommandHand());
+        event.registerServerCommand(new CommandProfile());
+
+        MetricsExporter.getExporter().startServer();
+    }
+
+    //Block ids differ between saves with different mod sets; they're remapped before the server starts.
+    @Mod.EventHandler
+    public void onIdRemap(FMLModIdMappingEvent event) {
+        MachineRegistry.getRegistry().onBlockIdsRemapped();
+    }
+
+    @Mod.EventHandler
+    public void onServerStop(FMLServerStoppingEvent event) {
+        MetricsExporter.getExporter().stopServer();
     }
 
     public static boolean isRunningInDevEnvironment() {
@@ -113,9 +113,19 @@ public class GuiMachineController extends GuiContainerBase<ContainerController>
         }
         offsetY += 15;
         if(controller.getCraftingStatus() == TileMachineController.CraftingStatus.CRAFTING) {
-            int percProgress = MathHelper.floor(controller.getCurrentActiveRecipeProgress(Animation.getPartialTickTime()) * 100F);
-            percProgress = MathHelper.clamp(percProgress, 0, 100);
-            String progressStr = I18n.format("gui.controller.status.crafting.progress", percProgress + "%");
+            StringBuilder progress = new StringBuilder();
+            for (int i = 0; i < controller.getLaneCount(); i++) {
+                if(!controller.isLaneActive(i)) {
+                    continue;
+                }
+                int percProgress = MathHelper.floor(controller.getLaneProgress(i, Animation.getPartialTickTime()) * 100F);
+                percProgress = MathHelper.clamp(percProgress, 0, 100);
+                if(progress.length() > 0) {
+                    progress.append(" / ");
+                }
+                progress.append(percProgress).append("%");
+            }
+            String progressStr = I18n.format("gui.controller.status.crafting.progress", progress.toString());
             fr.drawString(progressStr, offsetX, offsetY, 0xFFFFFF);
         }
 
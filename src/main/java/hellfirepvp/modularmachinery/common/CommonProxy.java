@@ -22,6 +22,12 @@ import hellfirepvp.modularmachinery.common.lib.BlocksMM;
 import hellfirepvp.modularmachinery.common.lib.ItemsMM;
 import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
 import hellfirepvp.modularmachinery.common.machine.MachineRegistry;
+import hellfirepvp.modularmachinery.common.machine.MachineScheduler;
+import hellfirepvp.modularmachinery.common.machine.StructureIndex;
+import hellfirepvp.modularmachinery.common.network.TileFieldSyncHandler;
+import hellfirepvp.modularmachinery.common.profiling.ControllerProfiler;
+import hellfirepvp.modularmachinery.common.profiling.FlightRecorderEvents;
+import hellfirepvp.modularmachinery.common.profiling.MetricsExporter;
 import hellfirepvp.modularmachinery.common.registry.RegistrationBus;
 import hellfirepvp.modularmachinery.common.registry.RegistryBlocks;
 import hellfirepvp.modularmachinery.common.registry.RegistryItems;
@@ -31,6 +37,7 @@ import hellfirepvp.modularmachinery.common.tiles.base.TileFluidTank;
 import hellfirepvp.modularmachinery.common.tiles.base.TileInventory;
 import hellfirepvp.modularmachinery.common.tiles.base.TileItemBus;
 import hellfirepvp.modularmachinery.common.util.FuelItemHelper;
+import hellfirepvp.modularmachinery.common.util.nbt.NBTMatchCache;
 import net.minecraft.block.Block;
 import net.minecraft.creativetab.CreativeTabs;
 import net.minecraft.entity.player.EntityPlayer;
@@ -79,6 +86,13 @@ public class CommonProxy implements IGuiHandler {
         MachineRegistry.getRegistry().buildRegistry();
         RecipeRegistry.getRegistry().buildRegistry();
         MinecraftForge.EVENT_BUS.register(new RegistrationBus());
+        MinecraftForge.EVENT_BUS.register(StructureIndex.getIndex());
+        MinecraftForge.EVENT_BUS.register(NBTMatchCache.getCache());
+        MinecraftForge.EVENT_BUS.register(new MachineScheduler.EventHandler());
+        MinecraftForge.EVENT_BUS.register(TileFieldSyncHandler.getHandler());
+        MinecraftForge.EVENT_BUS.register(MetricsExporter.getExporter());
+        MinecraftForge.EVENT_BUS.register(ControllerProfiler.class);
+        FlightRecorderEvents.register();
 
         RegistryBlocks.initialize();
         RegistryItems.initialize();
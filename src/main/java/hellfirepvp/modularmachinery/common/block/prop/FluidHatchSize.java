@@ -9,7 +9,7 @@
 package hellfirepvp.modularmachinery.common.block.prop;
 
 import hellfirepvp.modularmachinery.ModularMachinery;
-import hellfirepvp.modularmachinery.common.tiles.base.TileEntitySynchronized;
+import hellfirepvp.modularmachinery.common.tiles.base.TileFluidTank;
 import hellfirepvp.modularmachinery.common.util.HybridGasTank;
 import hellfirepvp.modularmachinery.common.util.HybridTank;
 import net.minecraft.util.IStringSerializable;
@@ -43,7 +43,7 @@ public enum FluidHatchSize implements IStringSerializable {
         this.defaultConfigurationValue = defaultConfigurationValue;
     }
 
-    public HybridTank buildTank(TileEntitySynchronized tileEntity, boolean canFill, boolean canDrain) {
+    public HybridTank buildTank(TileFluidTank tileEntity, boolean canFill, boolean canDrain) {
         HybridTank tank;
         if(ModularMachinery.isMekanismLoaded) {
             tank = buildMekTank(tileEntity);
@@ -55,23 +55,23 @@ public enum FluidHatchSize implements IStringSerializable {
         return tank;
     }
 
-    private HybridTank buildDefaultTank(TileEntitySynchronized tileEntity) {
+    private HybridTank buildDefaultTank(TileFluidTank tileEntity) {
         return new HybridTank(this.size) {
             @Override
             protected void onContentsChanged() {
                 super.onContentsChanged();
-                tileEntity.markForUpdate();
+                tileEntity.onTankContentsChanged();
             }
         };
     }
 
     @Optional.Method(modid = "mekanism")
-    private HybridTank buildMekTank(TileEntitySynchronized tileEntity) {
+    private HybridTank buildMekTank(TileFluidTank tileEntity) {
         return new HybridGasTank(this.size) {
             @Override
             protected void onContentsChanged() {
                 super.onContentsChanged();
-                tileEntity.markForUpdate();
+                tileEntity.onTankContentsChanged();
             }
         };
     }
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.command;
+
+import com.google.common.collect.Iterables;
+import hellfirepvp.modularmachinery.ModularMachinery;
+import hellfirepvp.modularmachinery.common.CommonProxy;
+import hellfirepvp.modularmachinery.common.crafting.RecipeRegistry;
+import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
+import hellfirepvp.modularmachinery.common.profiling.ControllerProfiler;
+import hellfirepvp.modularmachinery.common.profiling.RecipeStatistics;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: CommandProfile
+ * Date: 17.10.2026 / 20:35
+ */
+public class CommandProfile extends CommandBase {
+
+    @Override
+    public String getName() {
+        return "mm-profile";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public String getUsage(ICommandSender sender) {
+        return "command.modularmachinery.profile";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+        if(args.length < 1) {
+            throw new WrongUsageException(getUsage(sender));
+        }
+        switch (args[0].toLowerCase()) {
+            case "start":
+                ControllerProfiler.startSession();
+                sender.sendMessage(new TextComponentString("Started profiling machine controllers."));
+                break;
+            case "stop":
+                if(!ControllerProfiler.isActive()) {
+                    sender.sendMessage(new TextComponentString("Machine controllers aren't being profiled right now."));
+                    return;
+                }
+                ControllerProfiler.stopSession();
+                sender.sendMessage(new TextComponentString(String.format("Stopped profiling after %.1fs, %d controllers recorded.",
+                        ControllerProfiler.getSessionLength() / 1_000_000_000D, ControllerProfiler.getProfiledControllers())));
+                break;
+            case "top":
+                int amount = args.length > 1 ? parseInt(args[1], 1) : 10;
+                printTop(sender, amount);
+                break;
+            case "recipes":
+                boolean json = args.length > 1 && args[1].equalsIgnoreCase("json");
+                dumpRecipeStatistics(sender, json);
+                break;
+            default:
+                throw new WrongUsageException(getUsage(sender));
+        }
+    }
+
+    private void dumpRecipeStatistics(ICommandSender sender, boolean json) throws CommandException {
+        if(RecipeStatistics.getRecordedRecipes() == 0) {
+            sender.sendMessage(new TextComponentString("No recipe checks recorded. Use '/mm-profile start' first."));
+            return;
+        }
+        File dir = new File(CommonProxy.dataHolder.getMainDirectory(), "statistics");
+        if(!dir.exists()) {
+            dir.mkdirs();
+        }
+        String name = "recipes-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + (json ? ".json" : ".csv");
+        File out = new File(dir, name);
+        try {
+            if(json) {
+                RecipeStatistics.writeJson(out);
+            } else {
+                RecipeStatistics.writeCSV(out);
+            }
+        } catch (IOException exc) {
+            ModularMachinery.log.error("Couldn't write recipe statistics to " + out.getAbsolutePath(), exc);
+            throw new CommandException("Couldn't write recipe statistics! Check the log for details.");
+        }
+        sender.sendMessage(new TextComponentString("Wrote statistics of " + RecipeStatistics.getRecordedRecipes() + " recipes to " + out.getPath()));
+    }
+
+    private void printTop(ICommandSender sender, int amount) {
+        List<ControllerProfiler.ProfileEntry> top = ControllerProfiler.getTop(amount);
+        if(top.isEmpty()) {
+            sender.sendMessage(new TextComponentString("No profiling data recorded. Use '/mm-profile start' first."));
+            return;
+        }
+        double seconds = Math.max(ControllerProfiler.getSessionLength() / 1_000_000_000D, 0.001D);
+        sender.sendMessage(new TextComponentString(String.format("Top %d controllers over %.1fs:", top.size(), seconds)));
+        for (int i = 0; i < top.size(); i++) {
+            ControllerProfiler.ProfileEntry entry = top.get(i);
+            DynamicMachine machine = entry.getMachine();
+            BlockPos pos = entry.getPos();
+            int recipes = machine == null ? 0 : Iterables.size(RecipeRegistry.getRegistry().getRecipesFor(machine));
+
+            sender.sendMessage(new TextComponentString(String.format("#%d %s (%d recipes) in dim %d at %d, %d, %d: %.2fms total, %.3fms/s",
+                    i + 1, machine == null ? "<no machine>" : machine.getRegistryName().toString(), recipes,
+                    entry.getDimension(), pos.getX(), pos.getY(), pos.getZ(),
+                    entry.getTotalNanos() / 1_000_000D, entry.getTotalNanos() / 1_000_000D / seconds)));
+            StringBuilder phases = new StringBuilder("   ");
+            for (ControllerProfiler.Phase phase : ControllerProfiler.Phase.values()) {
+                phases.append(String.format(" %s %.2fms", phase.getDisplayName(), entry.getNanos(phase) / 1_000_000D));
+            }
+            sender.sendMessage(new TextComponentString(phases.toString()));
+        }
+    }
+
+    @Override
+    public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos targetPos) {
+        if(args.length == 1) {
+            return getListOfStringsMatchingLastWord(args, "start", "stop", "top", "recipes");
+        }
+        if(args.length == 2 && args[0].equalsIgnoreCase("recipes")) {
+            return getListOfStringsMatchingLastWord(args, "csv", "json");
+        }
+        return Collections.emptyList();
+    }
+
+}
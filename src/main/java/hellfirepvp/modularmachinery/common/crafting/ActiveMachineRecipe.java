@@ -27,6 +27,7 @@ public class ActiveMachineRecipe {
 
     private final MachineRecipe recipe;
     private int tick = 0;
+    private int batchSize = 1;
 
     public ActiveMachineRecipe(MachineRecipe recipe) {
         this.recipe = recipe;
@@ -35,6 +36,9 @@ public class ActiveMachineRecipe {
     public ActiveMachineRecipe(NBTTagCompound serialized) {
         this.recipe = RecipeRegistry.getRegistry().getRecipe(new ResourceLocation(serialized.getString("recipeName")));
         this.tick = serialized.getInteger("tick");
+        if(serialized.hasKey("batchSize")) {
+            this.batchSize = Math.max(1, serialized.getInteger("batchSize"));
+        }
     }
 
     public void reset() {
@@ -60,11 +64,22 @@ public class ActiveMachineRecipe {
         return tick;
     }
 
-    public boolean isCompleted(TileMachineController controller, RecipeCraftingContext context) {
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public int getRecipeDuration(RecipeCraftingContext context) {
         int time = this.recipe.getRecipeTotalTickTime();
         //Not sure which a user will use... let's try both.
-        time = Math.round(context.applyModifiers("duration", null, time, false));
-        return this.tick >= time;
+        return Math.round(context.applyModifiers("duration", null, time, false));
+    }
+
+    public boolean isCompleted(TileMachineController controller, RecipeCraftingContext context) {
+        return this.tick >= getRecipeDuration(context);
     }
 
     public void complete(RecipeCraftingContext completionContext) {
@@ -74,6 +89,7 @@ public class ActiveMachineRecipe {
     public NBTTagCompound serialize() {
         NBTTagCompound tag = new NBTTagCompound();
         tag.setInteger("tick", this.tick);
+        tag.setInteger("batchSize", this.batchSize);
         tag.setString("recipeName", this.recipe.getRegistryName().toString());
         return tag;
     }
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.crafting;
+
+import com.google.common.collect.Lists;
+import hellfirepvp.modularmachinery.common.crafting.helper.ComponentRequirement;
+import hellfirepvp.modularmachinery.common.crafting.requirements.RequirementFluid;
+import hellfirepvp.modularmachinery.common.crafting.requirements.RequirementItem;
+import hellfirepvp.modularmachinery.common.machine.MachineComponent;
+import hellfirepvp.modularmachinery.common.util.IOInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.oredict.OreDictionary;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: RecipeInputIndex
+ * Date: 17.10.2026 / 13:05
+ */
+public class RecipeInputIndex {
+
+    private final List<MachineRecipe> recipes;
+    private final int[] requiredKeys;
+    private final Map<Object, int[]> postings = new HashMap<>();
+
+    public RecipeInputIndex(Iterable<MachineRecipe> orderedRecipes) {
+        this.recipes = Lists.newArrayList(orderedRecipes);
+        this.requiredKeys = new int[this.recipes.size()];
+
+        Map<Object, List<Integer>> collected = new HashMap<>();
+        for (int i = 0; i < this.recipes.size(); i++) {
+            Set<Object> keys = new HashSet<>();
+            for (ComponentRequirement<?> requirement : this.recipes.get(i).getCraftingRequirements()) {
+                Object key = getInputKey(requirement);
+                if(key != null) {
+                    keys.add(key);
+                }
+            }
+            for (Object key : keys) {
+                collected.computeIfAbsent(key, k -> Lists.newArrayList()).add(i);
+            }
+            this.requiredKeys[i] = keys.size();
+        }
+        for (Map.Entry<Object, List<Integer>> entry : collected.entrySet()) {
+            List<Integer> indices = entry.getValue();
+            int[] arr = new int[indices.size()];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = indices.get(i);
+            }
+            this.postings.put(entry.getKey(), arr);
+        }
+    }
+
+    //Only requirements that can never be fulfilled without their input being present get a key.
+    @Nullable
+    private static Object getInputKey(ComponentRequirement<?> requirement) {
+        if(requirement.getActionType() != MachineComponent.IOType.INPUT) {
+            return null;
+        }
+        if(requirement instanceof RequirementItem) {
+            RequirementItem item = (RequirementItem) requirement;
+            switch (item.requirementType) {
+                case ITEMSTACKS:
+                    if(item.required.isEmpty()) {
+                        return null;
+                    }
+                    return new ItemKey(item.required.getItem(), item.required.getMetadata());
+                case OREDICT:
+                    return OreDictionary.getOreID(item.oreDictName);
+                default:
+                    return null;
+            }
+        }
+        if(requirement instanceof RequirementFluid) {
+            RequirementFluid fluid = (RequirementFluid) requirement;
+            FluidStack stack = fluid.required.asFluidStack();
+            if(stack == null) {
+                return null;
+            }
+            return stack.getFluid().getName();
+        }
+        return null;
+    }
+
+    public List<MachineRecipe> getCandidates(Collection<MachineComponent> components) {
+        Set<Object> present = new HashSet<>();
+        for (MachineComponent component : components) {
+            if(component.getIOType() != MachineComponent.IOType.INPUT) {
+                continue;
+            }
+            if(component instanceof MachineComponent.ItemBus) {
+                IOInventory inventory = ((MachineComponent.ItemBus) component).getContainerProvider();
+                for (int slot = 0; slot < inventory.getSlots(); slot++) {
+                    ItemStack stack = inventory.getStackInSlot(slot);
+                    if(stack.isEmpty()) {
+                        continue;
+                    }
+                    present.add(new ItemKey(stack.getItem(), stack.getMetadata()));
+                    present.add(new ItemKey(stack.getItem(), OreDictionary.WILDCARD_VALUE));
+                    for (int oreId : OreDictionary.getOreIDs(stack)) {
+                        present.add(oreId);
+                    }
+                }
+            } else if(component instanceof MachineComponent.FluidHatch) {
+                FluidStack fluid = ((MachineComponent.FluidHatch) component).getContainerProvider().getFluid();
+                if(fluid != null) {
+                    present.add(fluid.getFluid().getName());
+                }
+            }
+        }
+
+        int[] hits = new int[this.recipes.size()];
+        for (Object key : present) {
+            int[] indices = this.postings.get(key);
+            if(indices != null) {
+                for (int index : indices) {
+                    hits[index]++;
+                }
+            }
+        }
+        List<MachineRecipe> candidates = Lists.newArrayList();
+        for (int i = 0; i < hits.length; i++) {
+            if(hits[i] >= this.requiredKeys[i]) {
+                candidates.add(this.recipes.get(i));
+            }
+        }
+        return candidates;
+    }
+
+    private static class ItemKey {
+
+        private final Item item;
+        private final int meta;
+
+        private ItemKey(Item item, int meta) {
+            this.item = item;
+            this.meta = meta;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ItemKey other = (ItemKey) o;
+            return meta == other.meta && item == other.item;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * item.hashCode() + meta;
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.crafting;
+
+import hellfirepvp.modularmachinery.common.crafting.helper.RecipeCraftingContext;
+import hellfirepvp.modularmachinery.common.crafting.helper.RecipeSearchTask;
+import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
+import hellfirepvp.modularmachinery.common.machine.MachineComponent;
+import hellfirepvp.modularmachinery.common.modifier.ModifierReplacement;
+import hellfirepvp.modularmachinery.common.tiles.TileMachineController;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.MathHelper;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.concurrent.Future;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: RecipeLane
+ * Date: 17.10.2026 / 16:05
+ */
+public class RecipeLane {
+
+    private ActiveMachineRecipe activeRecipe = null;
+    private RecipeCraftingContext context = null;
+    private TileMachineController.CraftingStatus status = TileMachineController.CraftingStatus.NO_RECIPE;
+    private Future<RecipeSearchTask.Result> pendingSearch = null;
+
+    //Clients extrapolate the progress from these; they're only resent when progress stops being linear.
+    private int progressAnchorTick = 0;
+    private long progressAnchorTime = 0;
+    private int progressDuration = 0;
+
+    @Nullable
+    public ActiveMachineRecipe getActiveRecipe() {
+        return activeRecipe;
+    }
+
+    public void setActiveRecipe(@Nullable ActiveMachineRecipe activeRecipe) {
+        this.activeRecipe = activeRecipe;
+    }
+
+    public TileMachineController.CraftingStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TileMachineController.CraftingStatus status) {
+        this.status = status;
+    }
+
+    public RecipeCraftingContext getContext(DynamicMachine machine, MachineRecipe recipe,
+                                            Collection<MachineComponent> components, Collection<ModifierReplacement> modifiers) {
+        if(this.context == null) {
+            this.context = machine.createContext(recipe, components, modifiers);
+        } else if(this.context.getParentRecipe() != recipe) {
+            this.context.setParentRecipe(recipe);
+        }
+        return this.context;
+    }
+
+    @Nullable
+    public Future<RecipeSearchTask.Result> getPendingSearch() {
+        return pendingSearch;
+    }
+
+    public void setPendingSearch(@Nullable Future<RecipeSearchTask.Result> pendingSearch) {
+        this.pendingSearch = pendingSearch;
+    }
+
+    public void cancelPendingSearch() {
+        if(this.pendingSearch != null) {
+            this.pendingSearch.cancel(false);
+            this.pendingSearch = null;
+        }
+    }
+
+    public void resetContext() {
+        this.context = null;
+        cancelPendingSearch(); //Searched on snapshots of components that might not be there anymore
+    }
+
+    public void reset() {
+        this.activeRecipe = null;
+        this.context = null;
+        cancelPendingSearch();
+        this.status = TileMachineController.CraftingStatus.NO_RECIPE;
+    }
+
+    public boolean isProgressLinear(long worldTime, int duration) {
+        return this.activeRecipe != null && this.activeRecipe.getTick() == getExtrapolatedTick(worldTime) && duration == this.progressDuration;
+    }
+
+    public void updateProgressAnchor(long worldTime, int duration) {
+        this.progressAnchorTime = worldTime;
+        this.progressAnchorTick = this.activeRecipe != null ? this.activeRecipe.getTick() : 0;
+        this.progressDuration = duration;
+    }
+
+    private int getExtrapolatedTick(long worldTime) {
+        if(this.status != TileMachineController.CraftingStatus.CRAFTING) {
+            return this.progressAnchorTick;
+        }
+        return this.progressAnchorTick + (int) Math.max(0, worldTime - this.progressAnchorTime);
+    }
+
+    public float getProgress(long worldTime, float partial) {
+        if(this.activeRecipe == null) return 0F;
+        float tick = getExtrapolatedTick(worldTime);
+        if(this.status == TileMachineController.CraftingStatus.CRAFTING) {
+            tick += partial;
+        }
+        float maxTick = this.progressDuration > 0 ? this.progressDuration : this.activeRecipe.getRecipe().getRecipeTotalTickTime();
+        return MathHelper.clamp(tick / maxTick, 0F, 1F);
+    }
+
+    public void writeProgress(ByteBuf buf) {
+        buf.writeByte(this.status.ordinal());
+        buf.writeInt(this.progressAnchorTick);
+        buf.writeLong(this.progressAnchorTime);
+        buf.writeInt(this.progressDuration);
+    }
+
+    public void readProgress(ByteBuf buf) {
+        TileMachineController.CraftingStatus[] values = TileMachineController.CraftingStatus.values();
+        this.status = values[MathHelper.clamp(buf.readByte(), 0, values.length - 1)];
+        this.progressAnchorTick = buf.readInt();
+        this.progressAnchorTime = buf.readLong();
+        this.progressDuration = buf.readInt();
+    }
+
+    public NBTTagCompound serialize() {
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setInteger("status", this.status.ordinal());
+        if(this.activeRecipe != null) {
+            tag.setTag("activeRecipe", this.activeRecipe.serialize());
+            tag.setInteger("duration", this.progressDuration);
+        }
+        return tag;
+    }
+
+    public void deserialize(NBTTagCompound tag, long worldTime) {
+        TileMachineController.CraftingStatus[] values = TileMachineController.CraftingStatus.values();
+        this.status = values[MathHelper.clamp(tag.getInteger("status"), 0, values.length - 1)];
+        this.context = null;
+        this.activeRecipe = null;
+        cancelPendingSearch();
+        if(tag.hasKey("activeRecipe")) {
+            ActiveMachineRecipe recipe = new ActiveMachineRecipe(tag.getCompoundTag("activeRecipe"));
+            if(recipe.getRecipe() != null) {
+                this.activeRecipe = recipe;
+            }
+        }
+        this.progressAnchorTick = this.activeRecipe != null ? this.activeRecipe.getTick() : 0;
+        this.progressAnchorTime = worldTime;
+        this.progressDuration = tag.getInteger("duration");
+    }
+
+}
@@ -16,6 +16,7 @@ import hellfirepvp.modularmachinery.common.crafting.adapter.RecipeAdapterAccesso
 import hellfirepvp.modularmachinery.common.crafting.helper.ComponentRequirement;
 import hellfirepvp.modularmachinery.common.data.DataLoadProfiler;
 import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
+import hellfirepvp.modularmachinery.common.machine.MachineComponent;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.Tuple;
@@ -39,6 +40,7 @@ public class RecipeRegistry {
     private static RecipeRegistry INSTANCE = new RecipeRegistry();
     private static Map<ResourceLocation, TreeMap<Integer, TreeSet<MachineRecipe>>> REGISTRY_RECIPE_BY_MACHINE;
     private static Map<ResourceLocation, MachineRecipe> RECIPE_REGISTRY;
+    private static Map<ResourceLocation, RecipeInputIndex> RECIPE_INDEX_BY_MACHINE;
 
     private List<PreparedRecipe> earlyRecipes = new LinkedList<>();
 
@@ -57,6 +59,22 @@ public class RecipeRegistry {
         return Iterables.concat(recipes.values());
     }
 
+    @Nonnull
+    public Iterable<MachineRecipe> getRecipeCandidates(DynamicMachine machine, Collection<MachineComponent> components) {
+        RecipeInputIndex index = RECIPE_INDEX_BY_MACHINE.get(machine.getRegistryName());
+        if(index == null) {
+            return getRecipesFor(machine);
+        }
+        return index.getCandidates(components);
+    }
+
+    private void rebuildRecipeIndices() {
+        RECIPE_INDEX_BY_MACHINE.clear();
+        for (Map.Entry<ResourceLocation, TreeMap<Integer, TreeSet<MachineRecipe>>> entry : REGISTRY_RECIPE_BY_MACHINE.entrySet()) {
+            RECIPE_INDEX_BY_MACHINE.put(entry.getKey(), new RecipeInputIndex(Iterables.concat(entry.getValue().values())));
+        }
+    }
+
     @Nullable
     public MachineRecipe getRecipe(ResourceLocation key) {
         return RECIPE_REGISTRY.get(key);
@@ -65,6 +83,7 @@ public class RecipeRegistry {
     public void buildRegistry() {
         REGISTRY_RECIPE_BY_MACHINE = new HashMap<>();
         RECIPE_REGISTRY = new HashMap<>();
+        RECIPE_INDEX_BY_MACHINE = new HashMap<>();
     }
 
     public Map<DynamicMachine, List<MachineRecipe>> loadRecipes(@Nullable EntityPlayer player) {
@@ -153,6 +172,7 @@ public class RecipeRegistry {
             }
         }
         MachineRecipe.freezeChanges();
+        rebuildRecipeIndices();
     }
 
     public void registerRecipeEarly(PreparedRecipe recipe) {
@@ -190,6 +210,7 @@ public class RecipeRegistry {
         if(frozen) {
             MachineRecipe.freezeChanges();
         }
+        rebuildRecipeIndices();
     }
 
     public void clearLingeringRecipes() {
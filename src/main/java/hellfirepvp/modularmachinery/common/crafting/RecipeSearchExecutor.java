@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.crafting;
+
+import hellfirepvp.modularmachinery.common.data.Config;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: RecipeSearchExecutor
+ * Date: 17.10.2026 / 18:55
+ */
+public class RecipeSearchExecutor {
+
+    private static final RecipeSearchExecutor INSTANCE = new RecipeSearchExecutor();
+    private static final int MAX_QUEUED_SEARCHES = 256;
+
+    private ThreadPoolExecutor executor = null;
+
+    private RecipeSearchExecutor() {}
+
+    public static RecipeSearchExecutor getExecutor() {
+        return INSTANCE;
+    }
+
+    //Returns null if the queue is full; the caller is expected to search on its own then.
+    @Nullable
+    public <T> Future<T> submit(Callable<T> task) {
+        if(this.executor == null) {
+            this.executor = buildExecutor(Config.asyncRecipeSearchThreads);
+        }
+        try {
+            return this.executor.submit(task);
+        } catch (RejectedExecutionException exc) {
+            return null;
+        }
+    }
+
+    private static ThreadPoolExecutor buildExecutor(int threads) {
+        AtomicInteger threadId = new AtomicInteger(0);
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "ModularMachinery Recipe Search #" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_SEARCHES), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+}
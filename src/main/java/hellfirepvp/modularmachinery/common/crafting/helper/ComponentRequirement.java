@@ -115,6 +115,8 @@ public abstract class ComponentRequirement<T> {
 
         public void setChance(float chance);
 
+        public float getChance();
+
     }
 
 }
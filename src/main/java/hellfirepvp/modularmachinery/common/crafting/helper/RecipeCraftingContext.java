@@ -15,12 +15,13 @@ import hellfirepvp.modularmachinery.common.crafting.requirements.RequirementEner
 import hellfirepvp.modularmachinery.common.machine.MachineComponent;
 import hellfirepvp.modularmachinery.common.modifier.ModifierReplacement;
 import hellfirepvp.modularmachinery.common.modifier.RecipeModifier;
+import hellfirepvp.modularmachinery.common.profiling.RecipeStatistics;
 import hellfirepvp.modularmachinery.common.util.ResultChance;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * This class is part of the Modular Machinery Mod
@@ -31,14 +32,24 @@ import java.util.stream.Collectors;
  */
 public class RecipeCraftingContext {
 
-    private static final Random RAND = new Random();
+    //Acts on every check; used for the crafts of a batch whose chance already succeeded.
+    private static final ResultChance ROLLED_SUCCESS = new ResultChance(0) {
+        @Override
+        public boolean canProduce(float chance) {
+            return false;
+        }
+    };
+
+    private final Random rand = new Random();
 
-    private final MachineRecipe recipe;
+    private MachineRecipe recipe;
     private int currentCraftingTick = 0;
+    private int batchSize = 1;
     private Map<String, Map<MachineComponent, Object>> typeComponents = new HashMap<>();
     private Map<String, List<RecipeModifier>> modifiers = new HashMap<>();
 
     private List<ComponentOutputRestrictor> currentRestrictions = Lists.newArrayList();
+    private Map<ComponentRequirement, Object> requirementStates = new IdentityHashMap<>();
 
     public RecipeCraftingContext(MachineRecipe recipe) {
         this.recipe = recipe;
@@ -48,6 +59,62 @@ public class RecipeCraftingContext {
         return recipe;
     }
 
+    public void setParentRecipe(MachineRecipe recipe) {
+        if(!recipe.getOwningMachineIdentifier().equals(this.recipe.getOwningMachineIdentifier())) {
+            throw new IllegalArgumentException("Tried to switch context to a recipe that doesn't belong to the referenced machine!");
+        }
+        this.recipe = recipe;
+        this.currentCraftingTick = 0;
+        this.batchSize = 1;
+        this.currentRestrictions.clear();
+        this.requirementStates.clear();
+    }
+
+    //Transient state of a requirement while it's checked, started, finished or ticked in this context.
+    //Recipes are shared between all machines, so requirements mustn't keep any of that themselves.
+    public <S> S getRequirementState(ComponentRequirement<?> requirement, Supplier<S> stateProvider) {
+        Object state = this.requirementStates.get(requirement);
+        if(state == null) {
+            state = stateProvider.get();
+            this.requirementStates.put(requirement, state);
+        }
+        return (S) state;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    //Amounts of all requirements are scaled by this; chances and the duration stay the same.
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    //Finds the largest batch up to the given size that can be started, assuming a single craft can be started.
+    //Leaves the context set to that batch size.
+    public int findMaxBatchSize(int maxBatchSize) {
+        int low = 1;
+        int high = Math.max(1, maxBatchSize);
+        if(high > low) {
+            this.batchSize = high;
+            if(canStartCrafting() == ComponentRequirement.CraftCheck.SUCCESS) {
+                return high;
+            }
+            high--;
+        }
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            this.batchSize = mid;
+            if(canStartCrafting() == ComponentRequirement.CraftCheck.SUCCESS) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        this.batchSize = low;
+        return low;
+    }
+
     public void setCurrentCraftingTick(int currentCraftingTick) {
         this.currentCraftingTick = currentCraftingTick;
     }
@@ -58,19 +125,21 @@ public class RecipeCraftingContext {
 
     @Nonnull
     public List<RecipeModifier> getModifiers(String target) {
-        return modifiers.computeIfAbsent(target, t -> new LinkedList<>());
+        return modifiers.getOrDefault(target, Collections.emptyList());
     }
 
     public float applyModifiers(ComponentRequirement reqTarget, MachineComponent.IOType ioType, float value, boolean isChance) {
-        return applyModifiers(reqTarget.getRequiredComponentType().getRegistryName(), ioType, value, isChance);
+        float result = applyModifiers(reqTarget.getRequiredComponentType().getRegistryName(), ioType, value, isChance);
+        return isChance ? result : result * this.batchSize;
     }
 
     public float applyModifiers(String target, MachineComponent.IOType ioType, float value, boolean isChance) {
-        List<RecipeModifier> applicable = getModifiers(target);
-        applicable = applicable.stream().filter(mod -> (ioType == null || mod.getIOTarget() == ioType) && mod.affectsChance() == isChance).collect(Collectors.toList());
         float add = 0F;
         float mul = 1F;
-        for (RecipeModifier mod : applicable) {
+        for (RecipeModifier mod : getModifiers(target)) {
+            if((ioType != null && mod.getIOTarget() != ioType) || mod.affectsChance() != isChance) {
+                continue;
+            }
             if(mod.getOperation() == 0) {
                 add += mod.getModifier();
             } else if(mod.getOperation() == 1) {
@@ -93,7 +162,11 @@ public class RecipeCraftingContext {
     }
 
     public Collection<MachineComponent> getComponentsFor(ComponentType type) {
-        return this.typeComponents.computeIfAbsent(type.getRegistryName(), (s) -> new HashMap<>()).keySet();
+        Map<MachineComponent, Object> components = this.typeComponents.get(type.getRegistryName());
+        if(components == null) {
+            return Collections.emptySet();
+        }
+        return components.keySet();
     }
 
     public boolean energyTick() {
@@ -149,46 +222,103 @@ public class RecipeCraftingContext {
     }
 
     public void startCrafting() {
-        startCrafting(RAND.nextLong());
+        startCrafting(rand.nextLong());
     }
 
     public void startCrafting(long seed) {
         ResultChance chance = new ResultChance(seed);
+        Random copySeeds = new Random(seed);
         for (ComponentRequirement requirement : this.recipe.getCraftingRequirements()) {
             if(requirement.getActionType() == MachineComponent.IOType.OUTPUT) continue;
 
-            requirement.startRequirementCheck(chance, this);
-            for (MachineComponent component : getComponentsFor(requirement.getRequiredComponentType())) {
-                if(requirement.startCrafting(component, this, chance)) {
-                    requirement.endRequirementCheck();
-                    break;
-                }
+            int successful = rollSuccessfulCopies(requirement, copySeeds);
+            if(successful < 0) {
+                startRequirement(requirement, chance);
+            } else if(successful > 0) {
+                withBatchSize(successful, () -> startRequirement(requirement, ROLLED_SUCCESS));
             }
-            requirement.endRequirementCheck();
         }
     }
 
+    private void startRequirement(ComponentRequirement requirement, ResultChance chance) {
+        requirement.startRequirementCheck(chance, this);
+        for (MachineComponent component : getComponentsFor(requirement.getRequiredComponentType())) {
+            if(requirement.startCrafting(component, this, chance)) {
+                requirement.endRequirementCheck();
+                break;
+            }
+        }
+        requirement.endRequirementCheck();
+    }
+
     public void finishCrafting() {
-        finishCrafting(RAND.nextLong());
+        finishCrafting(rand.nextLong());
     }
 
     public void finishCrafting(long seed) {
         ResultChance chance = new ResultChance(seed);
+        Random copySeeds = new Random(seed);
         for (ComponentRequirement requirement : this.recipe.getCraftingRequirements()) {
             if(requirement.getActionType() == MachineComponent.IOType.INPUT) continue;
 
-            requirement.startRequirementCheck(chance, this);
-            for (MachineComponent component : getComponentsFor(requirement.getRequiredComponentType())) {
-                if(requirement.finishCrafting(component, this, chance)) {
-                    requirement.endRequirementCheck();
-                    break;
-                }
+            int successful = rollSuccessfulCopies(requirement, copySeeds);
+            if(successful < 0) {
+                finishRequirement(requirement, chance);
+            } else if(successful > 0) {
+                withBatchSize(successful, () -> finishRequirement(requirement, ROLLED_SUCCESS));
             }
-            requirement.endRequirementCheck();
+        }
+    }
+
+    private void finishRequirement(ComponentRequirement requirement, ResultChance chance) {
+        requirement.startRequirementCheck(chance, this);
+        for (MachineComponent component : getComponentsFor(requirement.getRequiredComponentType())) {
+            if(requirement.finishCrafting(component, this, chance)) {
+                requirement.endRequirementCheck();
+                break;
+            }
+        }
+        requirement.endRequirementCheck();
+    }
+
+    //Each craft of a batch rolls its own chance, same as crafting the recipe that many times would.
+    //Returns how many of the crafts succeeded, or -1 if the requirement isn't chanced and runs for the whole batch.
+    private int rollSuccessfulCopies(ComponentRequirement requirement, Random rand) {
+        if(this.batchSize <= 1 || !(requirement instanceof ComponentRequirement.ChancedRequirement)) {
+            return -1;
+        }
+        float chance = applyModifiers(requirement, requirement.getActionType(),
+                ((ComponentRequirement.ChancedRequirement) requirement).getChance(), true);
+        if(chance >= 1F) {
+            return -1;
+        }
+        int successful = 0;
+        for (int i = 0; i < this.batchSize; i++) {
+            if(rand.nextFloat() < chance) {
+                successful++;
+            }
+        }
+        return successful;
+    }
+
+    private void withBatchSize(int batchSize, Runnable action) {
+        int previous = this.batchSize;
+        this.batchSize = batchSize;
+        try {
+            action.run();
+        } finally {
+            this.batchSize = previous;
         }
     }
 
     public ComponentRequirement.CraftCheck canStartCrafting() {
+        return canStartCrafting(false);
+    }
+
+    //Only checks that try to find a recipe to run should be recorded;
+    //batch size probes and re-checks of an already found match would count the same attempt several times.
+    public ComponentRequirement.CraftCheck canStartCrafting(boolean recordStatistics) {
+        long start = recordStatistics ? RecipeStatistics.start() : 0L;
         currentRestrictions.clear();
 
         lblRequirements:
@@ -201,6 +331,7 @@ public class RecipeCraftingContext {
                         continue lblRequirements; //Check if it has at least 1 energy output.
                     }
                 }
+                RecipeStatistics.recordCheck(this.recipe, requirement, start);
                 return ComponentRequirement.CraftCheck.FAILURE_MISSING_INPUT;
             }
 
@@ -216,15 +347,22 @@ public class RecipeCraftingContext {
 
             requirement.endRequirementCheck();
             currentRestrictions.clear();
+            RecipeStatistics.recordCheck(this.recipe, requirement, start);
             return ComponentRequirement.CraftCheck.FAILURE_MISSING_INPUT;
         }
         currentRestrictions.clear();
+        RecipeStatistics.recordCheck(this.recipe, null, start);
         return ComponentRequirement.CraftCheck.SUCCESS;
     }
 
     public void addComponent(MachineComponent<?> component) {
+        addComponent(component, component.getContainerProvider());
+    }
+
+    //Checks against this context use the given provider instead of the one the component holds.
+    public void addComponent(MachineComponent<?> component, Object containerProvider) {
         Map<MachineComponent, Object> components = this.typeComponents.computeIfAbsent(component.getComponentType().getRegistryName(), (s) -> new HashMap<>());
-        components.put(component, component.getContainerProvider());
+        components.put(component, containerProvider);
     }
 
     public void addModifier(ModifierReplacement modifier) {
@@ -234,8 +372,11 @@ public class RecipeCraftingContext {
 
     @Nullable
     public Object getProvidedCraftingComponent(MachineComponent component) {
-        Map<MachineComponent, Object> components = this.typeComponents.computeIfAbsent(component.getComponentType().getRegistryName(), (s) -> new HashMap<>());
-        return components.getOrDefault(component, null);
+        Map<MachineComponent, Object> components = this.typeComponents.get(component.getComponentType().getRegistryName());
+        if(components == null) {
+            return null;
+        }
+        return components.get(component);
     }
 
 }
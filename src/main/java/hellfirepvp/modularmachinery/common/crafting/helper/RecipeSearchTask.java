@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.crafting.helper;
+
+import hellfirepvp.modularmachinery.common.crafting.MachineRecipe;
+import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
+import hellfirepvp.modularmachinery.common.machine.MachineComponent;
+import hellfirepvp.modularmachinery.common.modifier.ModifierReplacement;
+import hellfirepvp.modularmachinery.common.util.CopyHandlerHelper;
+import hellfirepvp.modularmachinery.common.util.HybridTank;
+import hellfirepvp.modularmachinery.common.util.IEnergyHandler;
+import hellfirepvp.modularmachinery.common.util.IOInventory;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: RecipeSearchTask
+ * Date: 17.10.2026 / 18:40
+ */
+public class RecipeSearchTask implements Callable<RecipeSearchTask.Result> {
+
+    private final List<MachineRecipe> candidates;
+    private final Map<MachineComponent, Object> snapshots;
+    private final List<ModifierReplacement> modifiers;
+    private final int maxBatchSize;
+
+    private RecipeSearchTask(List<MachineRecipe> candidates, Map<MachineComponent, Object> snapshots,
+                             List<ModifierReplacement> modifiers, int maxBatchSize) {
+        this.candidates = candidates;
+        this.snapshots = snapshots;
+        this.modifiers = modifiers;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    //Has to be called on the server thread. Returns null if any of the components can't be copied.
+    @Nullable
+    public static RecipeSearchTask capture(DynamicMachine machine, Collection<MachineRecipe> candidates,
+                                           Collection<MachineComponent> components, Collection<ModifierReplacement> modifiers) {
+        Map<MachineComponent, Object> snapshots = new LinkedHashMap<>();
+        for (MachineComponent component : components) {
+            Object snapshot = snapshotProvider(component.getContainerProvider());
+            if(snapshot == null) {
+                return null;
+            }
+            snapshots.put(component, snapshot);
+        }
+        return new RecipeSearchTask(new ArrayList<>(candidates), snapshots, new ArrayList<>(modifiers), machine.getMaxBatchSize());
+    }
+
+    @Nullable
+    private static Object snapshotProvider(Object provider) {
+        if(provider instanceof IOInventory) {
+            return CopyHandlerHelper.snapshotInventory((IOInventory) provider);
+        }
+        if(provider instanceof HybridTank) {
+            return CopyHandlerHelper.copyTank((HybridTank) provider);
+        }
+        if(provider instanceof IEnergyHandler) {
+            return CopyHandlerHelper.snapshotEnergy((IEnergyHandler) provider);
+        }
+        return null;
+    }
+
+    @Override
+    public Result call() {
+        RecipeCraftingContext context = null;
+        for (MachineRecipe recipe : this.candidates) {
+            if(context == null) {
+                context = new RecipeCraftingContext(recipe);
+                for (Map.Entry<MachineComponent, Object> entry : this.snapshots.entrySet()) {
+                    context.addComponent(entry.getKey(), entry.getValue());
+                }
+                this.modifiers.forEach(context::addModifier);
+            } else {
+                context.setParentRecipe(recipe);
+            }
+            if(context.canStartCrafting(true) == ComponentRequirement.CraftCheck.SUCCESS) {
+                return new Result(recipe, context.findMaxBatchSize(this.maxBatchSize));
+            }
+        }
+        return new Result(null, 0);
+    }
+
+    public static class Result {
+
+        private final MachineRecipe recipe;
+        private final int batchSize;
+
+        private Result(@Nullable MachineRecipe recipe, int batchSize) {
+            this.recipe = recipe;
+            this.batchSize = batchSize;
+        }
+
+        @Nullable
+        public MachineRecipe getRecipe() {
+            return recipe;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+    }
+
+}
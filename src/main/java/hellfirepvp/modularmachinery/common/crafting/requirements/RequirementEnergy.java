@@ -16,6 +16,7 @@ import hellfirepvp.modularmachinery.common.crafting.helper.RecipeCraftingContext
 import hellfirepvp.modularmachinery.common.crafting.requirements.jei.JEIComponentEnergy;
 import hellfirepvp.modularmachinery.common.integration.recipe.RecipeLayoutPart;
 import hellfirepvp.modularmachinery.common.machine.MachineComponent;
+import hellfirepvp.modularmachinery.common.profiling.MachineMetrics;
 import hellfirepvp.modularmachinery.common.util.IEnergyHandler;
 import hellfirepvp.modularmachinery.common.util.ResultChance;
 
@@ -33,19 +34,15 @@ import java.util.List;
 public class RequirementEnergy extends ComponentRequirement.PerTick<Long> {
 
     public final int requirementPerTick;
-    private int activeIO;
 
     public RequirementEnergy(MachineComponent.IOType ioType, int requirementPerTick) {
         super(ComponentType.Registry.getComponent("energy"), ioType);
         this.requirementPerTick = requirementPerTick;
-        this.activeIO = this.requirementPerTick;
     }
 
     @Override
     public ComponentRequirement deepCopy() {
-        RequirementEnergy energy = new RequirementEnergy(this.getActionType(), this.requirementPerTick);
-        energy.activeIO = this.activeIO;
-        return energy;
+        return new RequirementEnergy(this.getActionType(), this.requirementPerTick);
     }
 
     @Override
@@ -93,12 +90,17 @@ public class RequirementEnergy extends ComponentRequirement.PerTick<Long> {
 
     @Override
     public void startIOTick(RecipeCraftingContext context, float durationMultiplier) {
-        this.activeIO = Math.round(context.applyModifiers(this, getActionType(), this.activeIO , false) * durationMultiplier);
+        IOState state = getState(context);
+        state.activeIO = Math.round(context.applyModifiers(this, getActionType(), state.activeIO , false) * durationMultiplier);
     }
 
     @Override
     public void resetIOTick(RecipeCraftingContext context) {
-        this.activeIO = this.requirementPerTick;
+        getState(context).activeIO = this.requirementPerTick;
+    }
+
+    private IOState getState(RecipeCraftingContext context) {
+        return context.getRequirementState(this, IOState::new);
     }
 
     @Override
@@ -108,29 +110,41 @@ public class RequirementEnergy extends ComponentRequirement.PerTick<Long> {
                 !(component instanceof MachineComponent.EnergyHatch) ||
                 component.getIOType() != getActionType()) return CraftCheck.INVALID_SKIP;
         IEnergyHandler handler = (IEnergyHandler) context.getProvidedCraftingComponent(component);
+        IOState state = getState(context);
         switch (getActionType()) {
             case INPUT:
-                if(handler.getCurrentEnergy() >= this.activeIO) {
-                    handler.setCurrentEnergy(handler.getCurrentEnergy() - this.activeIO);
-                    this.activeIO = 0;
+                if(handler.getCurrentEnergy() >= state.activeIO) {
+                    handler.setCurrentEnergy(handler.getCurrentEnergy() - state.activeIO);
+                    MachineMetrics.recordEnergy(context, getActionType(), state.activeIO);
+                    state.activeIO = 0;
                     return CraftCheck.SUCCESS;
                 } else {
-                    this.activeIO -= handler.getCurrentEnergy();
+                    state.activeIO -= handler.getCurrentEnergy();
+                    MachineMetrics.recordEnergy(context, getActionType(), handler.getCurrentEnergy());
                     handler.setCurrentEnergy(0);
                     return CraftCheck.PARTIAL_SUCCESS;
                 }
             case OUTPUT:
                 int remaining = handler.getRemainingCapacity();
-                if(remaining - this.activeIO < 0) {
+                if(remaining - state.activeIO < 0) {
                     handler.setCurrentEnergy(handler.getMaxEnergy());
-                    this.activeIO -= remaining;
+                    MachineMetrics.recordEnergy(context, getActionType(), remaining);
+                    state.activeIO -= remaining;
                     return CraftCheck.PARTIAL_SUCCESS;
                 }
-                handler.setCurrentEnergy(Math.min(handler.getCurrentEnergy() + this.activeIO, handler.getMaxEnergy()));
-                this.activeIO = 0;
+                handler.setCurrentEnergy(Math.min(handler.getCurrentEnergy() + state.activeIO, handler.getMaxEnergy()));
+                MachineMetrics.recordEnergy(context, getActionType(), state.activeIO);
+                state.activeIO = 0;
                 return CraftCheck.SUCCESS;
         }
         //This is neither input nor output? when do we actually end up in this case down here?
         return CraftCheck.INVALID_SKIP;
     }
+
+    private static class IOState {
+
+        private int activeIO = 0;
+
+    }
+
 }
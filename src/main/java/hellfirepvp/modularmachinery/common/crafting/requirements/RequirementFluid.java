@@ -18,6 +18,7 @@ import hellfirepvp.modularmachinery.common.integration.ingredient.HybridFluid;
 import hellfirepvp.modularmachinery.common.integration.ingredient.HybridFluidGas;
 import hellfirepvp.modularmachinery.common.integration.recipe.RecipeLayoutPart;
 import hellfirepvp.modularmachinery.common.machine.MachineComponent;
+import hellfirepvp.modularmachinery.common.profiling.MachineMetrics;
 import hellfirepvp.modularmachinery.common.util.CopyHandlerHelper;
 import hellfirepvp.modularmachinery.common.util.HybridGasTank;
 import hellfirepvp.modularmachinery.common.util.HybridTank;
@@ -46,21 +47,16 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
     public final HybridFluid required;
     public float chance = 1F;
 
-    private HybridFluid requirementCheck;
-    private boolean doesntConsumeInput;
-
     private NBTTagCompound tagMatch = null, tagDisplay = null;
 
     public RequirementFluid(ComponentType<?> type, MachineComponent.IOType ioType, FluidStack fluid) {
         super(type, ioType);
         this.required = new HybridFluid(fluid);
-        this.requirementCheck = this.required.copy();
     }
 
     private RequirementFluid(ComponentType<?> type, MachineComponent.IOType ioType, HybridFluid required) {
         super(type, ioType);
         this.required = required.copy();
-        this.requirementCheck = this.required.copy();
     }
 
     @Optional.Method(modid = "mekanism")
@@ -111,17 +107,24 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
         this.chance = chance;
     }
 
+    @Override
+    public float getChance() {
+        return chance;
+    }
+
     @Override
     public void startRequirementCheck(ResultChance contextChance, RecipeCraftingContext context) {
-        this.requirementCheck = this.required.copy();
-        this.requirementCheck.setAmount(Math.round(context.applyModifiers(this, getActionType(), this.requirementCheck.getAmount(), false)));
-        this.doesntConsumeInput = contextChance.canProduce(context.applyModifiers(this, getActionType(), this.chance, true));
+        CheckState state = getState(context);
+        state.requirementCheck = this.required.copy();
+        state.requirementCheck.setAmount(Math.round(context.applyModifiers(this, getActionType(), state.requirementCheck.getAmount(), false)));
+        state.doesntConsumeInput = contextChance.canProduce(context.applyModifiers(this, getActionType(), this.chance, true));
     }
 
     @Override
-    public void endRequirementCheck() {
-        this.requirementCheck = this.required.copy();
-        this.doesntConsumeInput = true;
+    public void endRequirementCheck() {}
+
+    private CheckState getState(RecipeCraftingContext context) {
+        return context.getRequirementState(this, CheckState::new);
     }
 
     @Override
@@ -134,19 +137,20 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
         if(ModularMachinery.isMekanismLoaded) {
             return checkStartCraftingWithMekanism(component, context, handler, restrictions);
         }
+        CheckState state = getState(context);
 
         switch (getActionType()) {
             case INPUT:
                 //If it doesn't consume the item, we only need to see if it's actually there.
-                FluidStack drained = handler.drainInternal(this.requirementCheck.copy().asFluidStack(), false);
+                FluidStack drained = handler.drainInternal(state.requirementCheck.copy().asFluidStack(), false);
                 if(drained == null) {
                     return CraftCheck.FAILURE_MISSING_INPUT;
                 }
                 if(!NBTMatchingHelper.matchNBTCompound(this.tagMatch, drained.tag)) {
                     return CraftCheck.FAILURE_MISSING_INPUT;
                 }
-                this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - drained.amount, 0));
-                if(this.requirementCheck.getAmount() <= 0) {
+                state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - drained.amount, 0));
+                if(state.requirementCheck.getAmount() <= 0) {
                     return CraftCheck.SUCCESS;
                 }
                 break;
@@ -162,10 +166,10 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
                         }
                     }
                 }
-                int filled = handler.fillInternal(this.requirementCheck.copy().asFluidStack(), false); //True or false doesn't really matter tbh
-                boolean didFill = filled >= this.requirementCheck.getAmount();
+                int filled = handler.fillInternal(state.requirementCheck.copy().asFluidStack(), false); //True or false doesn't really matter tbh
+                boolean didFill = filled >= state.requirementCheck.getAmount();
                 if(didFill) {
-                    context.addRestriction(new ComponentOutputRestrictor.RestrictionTank(this.requirementCheck.copy(), component));
+                    context.addRestriction(new ComponentOutputRestrictor.RestrictionTank(state.requirementCheck.copy(), component));
                 }
                 if(didFill) {
                     return CraftCheck.SUCCESS;
@@ -178,26 +182,27 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
     @Optional.Method(modid = "mekanism")
     private CraftCheck checkStartCraftingWithMekanism(MachineComponent component, RecipeCraftingContext context,
                                                       HybridTank handler, List<ComponentOutputRestrictor> restrictions) {
+        CheckState state = getState(context);
         if(handler instanceof HybridGasTank) {
             HybridGasTank gasTank = (HybridGasTank) handler;
             switch (getActionType()) {
                 case INPUT:
-                    if(this.requirementCheck instanceof HybridFluidGas) {
-                        GasStack drained = gasTank.drawGas(EnumFacing.UP, this.requirementCheck.getAmount(), false);
+                    if(state.requirementCheck instanceof HybridFluidGas) {
+                        GasStack drained = gasTank.drawGas(EnumFacing.UP, state.requirementCheck.getAmount(), false);
                         if(drained == null) {
                             return CraftCheck.FAILURE_MISSING_INPUT;
                         }
-                        if(drained.getGas() != ((HybridFluidGas) this.requirementCheck).asGasStack().getGas()) {
+                        if(drained.getGas() != ((HybridFluidGas) state.requirementCheck).asGasStack().getGas()) {
                             return CraftCheck.FAILURE_MISSING_INPUT;
                         }
-                        this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - drained.amount, 0));
-                        if(this.requirementCheck.getAmount() <= 0) {
+                        state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - drained.amount, 0));
+                        if(state.requirementCheck.getAmount() <= 0) {
                             return CraftCheck.SUCCESS;
                         }
                     }
                     break;
                 case OUTPUT:
-                    if(this.requirementCheck instanceof HybridFluidGas) {
+                    if(state.requirementCheck instanceof HybridFluidGas) {
                         gasTank = (HybridGasTank) CopyHandlerHelper.copyTank(gasTank);
 
                         for (ComponentOutputRestrictor restrictor : restrictions) {
@@ -205,14 +210,14 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
                                 ComponentOutputRestrictor.RestrictionTank tank = (ComponentOutputRestrictor.RestrictionTank) restrictor;
 
                                 if(tank.exactComponent.equals(component) && tank.inserted instanceof HybridFluidGas) {
-                                    gasTank.receiveGas(EnumFacing.UP, ((HybridFluidGas) this.requirementCheck).asGasStack(), true);
+                                    gasTank.receiveGas(EnumFacing.UP, ((HybridFluidGas) state.requirementCheck).asGasStack(), true);
                                 }
                             }
                         }
-                        int gasFilled = gasTank.receiveGas(EnumFacing.UP, ((HybridFluidGas) this.requirementCheck).asGasStack(), false);
-                        boolean didFill = gasFilled >= this.requirementCheck.getAmount();
+                        int gasFilled = gasTank.receiveGas(EnumFacing.UP, ((HybridFluidGas) state.requirementCheck).asGasStack(), false);
+                        boolean didFill = gasFilled >= state.requirementCheck.getAmount();
                         if(didFill) {
-                            context.addRestriction(new ComponentOutputRestrictor.RestrictionTank(this.requirementCheck.copy(), component));
+                            context.addRestriction(new ComponentOutputRestrictor.RestrictionTank(state.requirementCheck.copy(), component));
                         }
                         if(didFill) {
                             return CraftCheck.SUCCESS;
@@ -223,15 +228,15 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
         switch (getActionType()) {
             case INPUT:
                 //If it doesn't consume the item, we only need to see if it's actually there.
-                FluidStack drained = handler.drainInternal(this.requirementCheck.copy().asFluidStack(), false);
+                FluidStack drained = handler.drainInternal(state.requirementCheck.copy().asFluidStack(), false);
                 if(drained == null) {
                     return CraftCheck.FAILURE_MISSING_INPUT;
                 }
                 if(!NBTMatchingHelper.matchNBTCompound(this.tagMatch, drained.tag)) {
                     return CraftCheck.FAILURE_MISSING_INPUT;
                 }
-                this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - drained.amount, 0));
-                if(this.requirementCheck.getAmount() <= 0) {
+                state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - drained.amount, 0));
+                if(state.requirementCheck.getAmount() <= 0) {
                     return CraftCheck.SUCCESS;
                 }
                 break;
@@ -247,10 +252,10 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
                         }
                     }
                 }
-                int filled = handler.fillInternal(this.requirementCheck.copy().asFluidStack(), false); //True or false doesn't really matter tbh
-                boolean didFill = filled >= this.requirementCheck.getAmount();
+                int filled = handler.fillInternal(state.requirementCheck.copy().asFluidStack(), false); //True or false doesn't really matter tbh
+                boolean didFill = filled >= state.requirementCheck.getAmount();
                 if(didFill) {
-                    context.addRestriction(new ComponentOutputRestrictor.RestrictionTank(this.requirementCheck.copy(), component));
+                    context.addRestriction(new ComponentOutputRestrictor.RestrictionTank(state.requirementCheck.copy(), component));
                 }
                 if(didFill) {
                     return CraftCheck.SUCCESS;
@@ -265,83 +270,85 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
                 !(component instanceof MachineComponent.FluidHatch) ||
                 component.getIOType() != getActionType()) return false;
         HybridTank handler = (HybridTank) context.getProvidedCraftingComponent(component);
+        CheckState state = getState(context);
         switch (getActionType()) {
             case INPUT:
                 if(ModularMachinery.isMekanismLoaded) {
-                    return startCraftingWithMekanismHandling(handler, chance);
+                    return startCraftingWithMekanismHandling(handler, state);
                 }
 
                 //If it doesn't consume the item, we only need to see if it's actually there.
-                FluidStack drainedSimulated = handler.drainInternal(this.requirementCheck.copy().asFluidStack(), false);
+                FluidStack drainedSimulated = handler.drainInternal(state.requirementCheck.copy().asFluidStack(), false);
                 if(drainedSimulated == null) {
                     return false;
                 }
                 if(!NBTMatchingHelper.matchNBTCompound(this.tagMatch, drainedSimulated.tag)) {
                     return false;
                 }
-                if(this.doesntConsumeInput) {
-                    this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - drainedSimulated.amount, 0));
-                    return this.requirementCheck.getAmount() <= 0;
+                if(state.doesntConsumeInput) {
+                    state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - drainedSimulated.amount, 0));
+                    return state.requirementCheck.getAmount() <= 0;
                 }
-                FluidStack actualDrained = handler.drainInternal(this.requirementCheck.copy().asFluidStack(), true);
+                FluidStack actualDrained = handler.drainInternal(state.requirementCheck.copy().asFluidStack(), true);
                 if(actualDrained == null) {
                     return false;
                 }
                 if(!NBTMatchingHelper.matchNBTCompound(this.tagMatch, actualDrained.tag)) {
                     return false;
                 }
-                this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - actualDrained.amount, 0));
-                return this.requirementCheck.getAmount() <= 0;
+                MachineMetrics.recordFluid(context, getActionType(), actualDrained.amount);
+                state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - actualDrained.amount, 0));
+                return state.requirementCheck.getAmount() <= 0;
         }
         return false;
     }
 
     @Optional.Method(modid = "mekanism")
-    private boolean startCraftingWithMekanismHandling(HybridTank handler, ResultChance chance) {
-        if(this.requirementCheck instanceof HybridFluidGas && handler instanceof HybridGasTank) {
+    private boolean startCraftingWithMekanismHandling(HybridTank handler, CheckState state) {
+        if(state.requirementCheck instanceof HybridFluidGas && handler instanceof HybridGasTank) {
             HybridGasTank gasHandler = (HybridGasTank) handler;
 
-            GasStack drainSimulated = gasHandler.drawGas(EnumFacing.UP, this.requirementCheck.getAmount(), false);
+            GasStack drainSimulated = gasHandler.drawGas(EnumFacing.UP, state.requirementCheck.getAmount(), false);
             if(drainSimulated == null) {
                 return false;
             }
-            if(drainSimulated.getGas() != ((HybridFluidGas) this.requirementCheck).asGasStack().getGas()) {
+            if(drainSimulated.getGas() != ((HybridFluidGas) state.requirementCheck).asGasStack().getGas()) {
                 return false;
             }
-            if(this.doesntConsumeInput) {
-                this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - drainSimulated.amount, 0));
-                return this.requirementCheck.getAmount() <= 0;
+            if(state.doesntConsumeInput) {
+                state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - drainSimulated.amount, 0));
+                return state.requirementCheck.getAmount() <= 0;
             }
-            GasStack actualDrain = gasHandler.drawGas(EnumFacing.UP, this.requirementCheck.getAmount(), true);
+            GasStack actualDrain = gasHandler.drawGas(EnumFacing.UP, state.requirementCheck.getAmount(), true);
             if(actualDrain == null) {
                 return false;
             }
-            if(actualDrain.getGas() != ((HybridFluidGas) this.requirementCheck).asGasStack().getGas()) {
+            if(actualDrain.getGas() != ((HybridFluidGas) state.requirementCheck).asGasStack().getGas()) {
                 return false;
             }
-            this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - actualDrain.amount, 0));
-            return this.requirementCheck.getAmount() <= 0;
+            state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - actualDrain.amount, 0));
+            return state.requirementCheck.getAmount() <= 0;
         } else {
-            FluidStack drainedSimulated = handler.drainInternal(this.requirementCheck.copy().asFluidStack(), false);
+            FluidStack drainedSimulated = handler.drainInternal(state.requirementCheck.copy().asFluidStack(), false);
             if(drainedSimulated == null) {
                 return false;
             }
             if(!NBTMatchingHelper.matchNBTCompound(this.tagMatch, drainedSimulated.tag)) {
                 return false;
             }
-            if(this.doesntConsumeInput) {
-                this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - drainedSimulated.amount, 0));
-                return this.requirementCheck.getAmount() <= 0;
+            if(state.doesntConsumeInput) {
+                state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - drainedSimulated.amount, 0));
+                return state.requirementCheck.getAmount() <= 0;
             }
-            FluidStack actualDrained = handler.drainInternal(this.requirementCheck.copy().asFluidStack(), true);
+            FluidStack actualDrained = handler.drainInternal(state.requirementCheck.copy().asFluidStack(), true);
             if(actualDrained == null) {
                 return false;
             }
             if(!NBTMatchingHelper.matchNBTCompound(this.tagMatch, actualDrained.tag)) {
                 return false;
             }
-            this.requirementCheck.setAmount(Math.max(this.requirementCheck.getAmount() - actualDrained.amount, 0));
-            return this.requirementCheck.getAmount() <= 0;
+            state.requirementCheck.setAmount(Math.max(state.requirementCheck.getAmount() - actualDrained.amount, 0));
+            return state.requirementCheck.getAmount() <= 0;
         }
     }
 
@@ -351,12 +358,13 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
                 !(component instanceof MachineComponent.FluidHatch) ||
                 component.getIOType() != getActionType()) return false;
         HybridTank handler = (HybridTank) context.getProvidedCraftingComponent(component);
+        CheckState state = getState(context);
         switch (getActionType()) {
             case OUTPUT:
                 if(ModularMachinery.isMekanismLoaded) {
-                    return finishWithMekanismHandling(handler, chance);
+                    return finishWithMekanismHandling(handler, chance, state);
                 } else {
-                    FluidStack outStack = this.requirementCheck.asFluidStack();
+                    FluidStack outStack = state.requirementCheck.asFluidStack();
                     if(outStack != null) {
                         int fillableAmount = handler.fillInternal(outStack.copy(), false);
                         if(chance.canProduce(this.chance)) {
@@ -366,7 +374,11 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
                         if(this.tagDisplay != null ){
                             copyOut.tag = this.tagDisplay.copy();
                         }
-                        return fillableAmount >= outStack.amount && handler.fillInternal(copyOut.copy(), true) >= copyOut.amount;
+                        if(fillableAmount >= outStack.amount && handler.fillInternal(copyOut.copy(), true) >= copyOut.amount) {
+                            MachineMetrics.recordFluid(context, getActionType(), copyOut.amount);
+                            return true;
+                        }
+                        return false;
                     }
                 }
         }
@@ -374,9 +386,9 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
     }
 
     @Optional.Method(modid = "mekanism")
-    private boolean finishWithMekanismHandling(HybridTank handler, ResultChance chance) {
-        if(this.requirementCheck instanceof HybridFluidGas && handler instanceof HybridGasTank) {
-            GasStack gasOut = ((HybridFluidGas) this.requirementCheck).asGasStack();
+    private boolean finishWithMekanismHandling(HybridTank handler, ResultChance chance, CheckState state) {
+        if(state.requirementCheck instanceof HybridFluidGas && handler instanceof HybridGasTank) {
+            GasStack gasOut = ((HybridFluidGas) state.requirementCheck).asGasStack();
             HybridGasTank gasTankHandler = (HybridGasTank) handler;
             int fillableGas = gasTankHandler.receiveGas(EnumFacing.UP, gasOut, false);
             if(chance.canProduce(this.chance)) {
@@ -384,7 +396,7 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
             }
             return fillableGas >= gasOut.amount && gasTankHandler.receiveGas(EnumFacing.UP, gasOut, true) >= gasOut.amount;
         } else {
-            FluidStack outStack = this.requirementCheck.asFluidStack();
+            FluidStack outStack = state.requirementCheck.asFluidStack();
             if(outStack != null) {
                 int fillableAmount = handler.fillInternal(outStack.copy(), false);
                 if(chance.canProduce(this.chance)) {
@@ -400,4 +412,11 @@ public class RequirementFluid extends ComponentRequirement<HybridFluid> implemen
         return false;
     }
 
+    private static class CheckState {
+
+        private HybridFluid requirementCheck;
+        private boolean doesntConsumeInput = true;
+
+    }
+
 }
@@ -17,6 +17,7 @@ import hellfirepvp.modularmachinery.common.crafting.helper.RecipeCraftingContext
 import hellfirepvp.modularmachinery.common.crafting.requirements.jei.JEIComponentItem;
 import hellfirepvp.modularmachinery.common.integration.recipe.RecipeLayoutPart;
 import hellfirepvp.modularmachinery.common.machine.MachineComponent;
+import hellfirepvp.modularmachinery.common.profiling.MachineMetrics;
 import hellfirepvp.modularmachinery.common.util.*;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -45,8 +46,6 @@ public class RequirementItem extends ComponentRequirement<ItemStack> implements
 
     public final int fuelBurntime;
 
-    public int countIOBuffer = 0;
-
     public NBTTagCompound tag = null;
     public NBTTagCompound previewDisplayTag = null;
 
@@ -113,23 +112,26 @@ public class RequirementItem extends ComponentRequirement<ItemStack> implements
 
     @Override
     public void startRequirementCheck(ResultChance contextChance, RecipeCraftingContext context) {
+        CheckState state = getState(context);
         switch (this.requirementType) {
             case ITEMSTACKS:
-                this.countIOBuffer = this.required.getCount();
+                state.countIOBuffer = this.required.getCount();
                 break;
             case OREDICT:
-                this.countIOBuffer = this.oreDictItemAmount;
+                state.countIOBuffer = this.oreDictItemAmount;
                 break;
             case FUEL:
-                this.countIOBuffer = this.fuelBurntime;
+                state.countIOBuffer = this.fuelBurntime;
                 break;
         }
-        this.countIOBuffer = Math.round(context.applyModifiers(this, getActionType(), this.countIOBuffer, false));
+        state.countIOBuffer = Math.round(context.applyModifiers(this, getActionType(), state.countIOBuffer, false));
     }
 
     @Override
-    public void endRequirementCheck() {
-        this.countIOBuffer = 0;
+    public void endRequirementCheck() {}
+
+    private CheckState getState(RecipeCraftingContext context) {
+        return context.getRequirementState(this, CheckState::new);
     }
 
     @Override
@@ -137,6 +139,11 @@ public class RequirementItem extends ComponentRequirement<ItemStack> implements
         this.chance = chance;
     }
 
+    @Override
+    public float getChance() {
+        return chance;
+    }
+
     @Override
     public CraftCheck canStartCrafting(MachineComponent component, RecipeCraftingContext context, List<ComponentOutputRestrictor> restrictions) {
         if(!component.getComponentType().equals(this.getRequiredComponentType()) ||
@@ -181,12 +188,13 @@ public class RequirementItem extends ComponentRequirement<ItemStack> implements
                     }
                 }
 
+                CheckState state = getState(context);
                 ItemStack stack;
                 if(oreDictName != null) {
                     stack = Iterables.getFirst(OreDictionary.getOres(oreDictName), ItemStack.EMPTY);
-                    stack = ItemUtils.copyStackWithSize(stack, this.countIOBuffer);
+                    stack = ItemUtils.copyStackWithSize(stack, state.countIOBuffer);
                 } else {
-                    stack = ItemUtils.copyStackWithSize(required, this.countIOBuffer);
+                    stack = ItemUtils.copyStackWithSize(required, state.countIOBuffer);
                 }
 
                 if(stack.isEmpty()) {
@@ -200,8 +208,8 @@ public class RequirementItem extends ComponentRequirement<ItemStack> implements
                 if(inserted > 0) {
                     context.addRestriction(new ComponentOutputRestrictor.RestrictionInventory(ItemUtils.copyStackWithSize(stack, inserted), component));
                 }
-                this.countIOBuffer -= inserted;
-                if(this.countIOBuffer <= 0) {
+                state.countIOBuffer -= inserted;
+                if(state.countIOBuffer <= 0) {
                     return CraftCheck.SUCCESS;
                 }
         }
@@ -227,14 +235,22 @@ public class RequirementItem extends ComponentRequirement<ItemStack> implements
                         if(chance.canProduce(productionChance)) {
                             return can;
                         }
-                        return can && ItemUtils.consumeFromInventory(handler, stackRequired, false, this.tag);
+                        if(can && ItemUtils.consumeFromInventory(handler, stackRequired, false, this.tag)) {
+                            MachineMetrics.recordItems(context, getActionType(), amt);
+                            return true;
+                        }
+                        return false;
                     case OREDICT:
                         int requiredOredict = Math.round(context.applyModifiers(this, getActionType(), this.oreDictItemAmount, false));
                         can = ItemUtils.consumeFromInventoryOreDict(handler, this.oreDictName, requiredOredict, true, this.tag);
                         if(chance.canProduce(productionChance)) {
                             return can;
                         }
-                        return can && ItemUtils.consumeFromInventoryOreDict(handler, this.oreDictName, requiredOredict, false, this.tag);
+                        if(can && ItemUtils.consumeFromInventoryOreDict(handler, this.oreDictName, requiredOredict, false, this.tag)) {
+                            MachineMetrics.recordItems(context, getActionType(), requiredOredict);
+                            return true;
+                        }
+                        return false;
                     case FUEL:
                         int requiredBurnTime = Math.round(context.applyModifiers(this, getActionType(), this.fuelBurntime, false));
                         can = ItemUtils.consumeFromInventoryFuel(handler, requiredBurnTime, true, this.tag) <= 0;
@@ -259,12 +275,13 @@ public class RequirementItem extends ComponentRequirement<ItemStack> implements
         IOInventory handler = (IOInventory) context.getProvidedCraftingComponent(component);
         switch (getActionType()) {
             case OUTPUT:
+                CheckState state = getState(context);
                 ItemStack stack;
                 if(oreDictName != null) {
                     stack = Iterables.getFirst(OreDictionary.getOres(oreDictName), ItemStack.EMPTY);
-                    stack = ItemUtils.copyStackWithSize(stack, this.countIOBuffer);
+                    stack = ItemUtils.copyStackWithSize(stack, state.countIOBuffer);
                 } else {
-                    stack = ItemUtils.copyStackWithSize(required, this.countIOBuffer);
+                    stack = ItemUtils.copyStackWithSize(required, state.countIOBuffer);
                 }
 
                 if(stack.isEmpty()) {
@@ -280,14 +297,21 @@ public class RequirementItem extends ComponentRequirement<ItemStack> implements
                 }
                 if(inserted > 0) {
                     int actual = ItemUtils.tryPlaceItemInInventory(stack.copy(), handler, false);
-                    this.countIOBuffer -= actual;
-                    return this.countIOBuffer <= 0;
+                    MachineMetrics.recordItems(context, getActionType(), actual);
+                    state.countIOBuffer -= actual;
+                    return state.countIOBuffer <= 0;
                 }
                 return false;
         }
         return false;
     }
 
+    private static class CheckState {
+
+        private int countIOBuffer = 0;
+
+    }
+
     public enum ItemRequirementType {
 
         ITEMSTACKS,
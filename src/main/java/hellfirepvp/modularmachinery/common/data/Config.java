@@ -29,6 +29,17 @@ public class Config {
 
     public static int machineColor;
 
+    public static boolean asyncRecipeSearch = false;
+    public static int asyncRecipeSearchThreads = 2;
+    public static float machineSchedulerBudget = 5F;
+
+    public static int nbtMatchCacheTicks = 100;
+    public static int structureRevalidationInterval = 200;
+
+    public static boolean metricsEnabled = false;
+    public static int metricsDumpInterval = 60;
+    public static int metricsHttpPort = 0;
+
     public static void loadFrom(File file) {
         lastReadFile = file;
         lastReadConfig = new Configuration(file);
@@ -53,6 +64,16 @@ public class Config {
             ModularMachinery.log.error("Using default color instead...");
         }
         machineColor = col;
+
+        asyncRecipeSearch = lastReadConfig.getBoolean("async-recipe-search", "performance", false, "If true, controllers look for a matching recipe on a background thread, using a snapshot of their item buses, tanks and energy hatches. The match is re-checked on the server thread before it starts.");
+        asyncRecipeSearchThreads = lastReadConfig.getInt("async-recipe-search-threads", "performance", 2, 1, 16, "Amount of background threads used for recipe searches if 'async-recipe-search' is enabled.");
+        machineSchedulerBudget = lastReadConfig.getFloat("machine-scheduler-budget", "performance", 5F, 0F, 50F, "Milliseconds per server tick and world that controllers may spend on structure checks and recipe searches. Work that doesn't fit is done in the next ticks; crafting progress itself isn't affected. 0 disables the budget and controllers do that work in their own tick.");
+        nbtMatchCacheTicks = lastReadConfig.getInt("nbt-match-cache-ticks", "performance", 100, 0, 72000, "Structure positions that require tile entity NBT reuse a tile's match result for at most this many ticks. Block updates at the position and changes to Modular Machinery's own tiles discard it earlier. 0 checks the NBT on every structure check.");
+        structureRevalidationInterval = lastReadConfig.getInt("structure-revalidation-interval", "performance", 200, 0, 72000, "Formed machines that aren't dormant check their whole structure again every this many ticks, and dormant ones once they wake up. Block changes are picked up right away through neighbor updates; this catches blocks that mods or world editors set without any. 0 disables it.");
+
+        metricsEnabled = lastReadConfig.getBoolean("enabled", "metrics", false, "If true, throughput metrics (crafts, idle time, energy, items, fluids, recipe searches, structure formations) are collected per machine type.");
+        metricsDumpInterval = lastReadConfig.getInt("dump-interval", "metrics", 60, 0, 86400, "Seconds between writing the collected metrics in Prometheus text format to config/modularmachinery/statistics/metrics.prom. 0 disables the file.");
+        metricsHttpPort = lastReadConfig.getInt("http-port", "metrics", 0, 0, 65535, "If not 0, the collected metrics are served in Prometheus text format on http://127.0.0.1:<port>/metrics. Only reachable from the server machine itself.");
     }
 
 }
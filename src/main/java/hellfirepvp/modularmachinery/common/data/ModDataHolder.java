@@ -60,6 +60,10 @@ public class ModDataHolder {
         return old;
     }
 
+    public File getMainDirectory() {
+        return mainDir;
+    }
+
     public File getMachineryDirectory() {
         return machineryDir;
     }
@@ -45,22 +45,15 @@ public class ItemDebugStruct extends Item {
         if(te != null && te instanceof TileMachineController) {
             DynamicMachine dm = ((TileMachineController) te).getBlueprintMachine();
             if(dm != null) {
-                BlockArray pattern = dm.getPattern();
+                EnumFacing face = worldIn.getBlockState(pos).getValue(BlockController.FACING);
+                BlockArray pattern = dm.getPattern(face);
                 if(pattern != null) {
-
-                    EnumFacing face = EnumFacing.NORTH;
                     player.sendMessage(new TextComponentString("Attempting structure matching:"));
-                    player.sendMessage(new TextComponentString("Structure is facing: " + worldIn.getBlockState(pos).getValue(BlockController.FACING).name()));
-                    do {
-                        if(face == worldIn.getBlockState(pos).getValue(BlockController.FACING)) {
-                            BlockPos mismatch = pattern.getRelativeMismatchPosition(worldIn, pos, dm.getModifiersAsMatchingReplacements());
-                            if(mismatch != null) {
-                                player.sendMessage(new TextComponentString("Failed at relative position: " + mismatch.toString()));
-                            }
-                        }
-                        face = face.rotateYCCW();
-                        pattern = pattern.rotateYCCW();
-                    } while (face != EnumFacing.NORTH);
+                    player.sendMessage(new TextComponentString("Structure is facing: " + face.name()));
+                    BlockPos mismatch = pattern.getRelativeMismatchPosition(worldIn, pos, dm.getModifiersAsMatchingReplacements(face));
+                    if(mismatch != null) {
+                        player.sendMessage(new TextComponentString("Failed at relative position: " + mismatch.toString()));
+                    }
                 }
             }
         }
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.machine;
+
+import com.google.common.collect.Lists;
+import hellfirepvp.modularmachinery.common.util.BlockArray;
+import net.minecraft.block.Block;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.*;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: DiscoveryIndex
+ * Date: 17.10.2026 / 11:40
+ */
+public class DiscoveryIndex {
+
+    private final List<DynamicMachine> machines = Lists.newArrayList();
+    private final Map<BlockPos, Map<Integer, Set<DynamicMachine>>> anchors = new HashMap<>();
+    private final Set<DynamicMachine> unanchored = new HashSet<>();
+    private int areaRadius = 0, areaMinY = 0, areaMaxY = 0;
+
+    public DiscoveryIndex(Collection<DynamicMachine> registered) {
+        for (DynamicMachine machine : registered) {
+            if(machine.requiresBlueprint()) {
+                continue;
+            }
+            machines.add(machine);
+            BlockArray pattern = machine.getPattern();
+            areaRadius = Math.max(areaRadius, getHorizontalRadius(pattern));
+            areaMinY = Math.min(areaMinY, pattern.getMin().getY());
+            areaMaxY = Math.max(areaMaxY, pattern.getMax().getY());
+            for (EnumFacing rotation : machine.getMatchingRotations(EnumFacing.NORTH)) {
+                addAnchor(machine, rotation);
+            }
+        }
+    }
+
+    public static int getHorizontalRadius(BlockArray pattern) {
+        return Math.max(Math.max(Math.abs(pattern.getMin().getX()), Math.abs(pattern.getMax().getX())),
+                Math.max(Math.abs(pattern.getMin().getZ()), Math.abs(pattern.getMax().getZ())));
+    }
+
+    //Covers all rotations of all machines that don't need a blueprint.
+    public int getAreaRadius() {
+        return areaRadius;
+    }
+
+    public int getAreaMinY() {
+        return areaMinY;
+    }
+
+    public int getAreaMaxY() {
+        return areaMaxY;
+    }
+
+    //Picks the most selective position of the pattern in that rotation, preferring positions right next to the controller.
+    private void addAnchor(DynamicMachine machine, EnumFacing rotation) {
+        Map<BlockPos, BlockArray.BlockInformation> modifiers = machine.getModifiersAsMatchingReplacements(rotation);
+        BlockPos anchor = null;
+        Set<Integer> anchorStates = null;
+        boolean anchorAdjacent = false;
+        for (Map.Entry<BlockPos, BlockArray.BlockInformation> entry : machine.getPattern(rotation).getPattern().entrySet()) {
+            BlockPos offset = entry.getKey();
+            boolean adjacent = Math.abs(offset.getX()) <= 1 && Math.abs(offset.getY()) <= 1 && Math.abs(offset.getZ()) <= 1;
+            if(anchorAdjacent && !adjacent) {
+                continue;
+            }
+            Set<Integer> states = new HashSet<>(entry.getValue().getMatchingStateIds());
+            BlockArray.BlockInformation replacement = modifiers.get(offset);
+            if(replacement != null) {
+                states.addAll(replacement.getMatchingStateIds());
+            }
+            if(anchor == null || (adjacent && !anchorAdjacent) || states.size() < anchorStates.size() ||
+                    (states.size() == anchorStates.size() && offset.distanceSq(BlockPos.ORIGIN) < anchor.distanceSq(BlockPos.ORIGIN))) {
+                anchor = offset;
+                anchorStates = states;
+                anchorAdjacent = adjacent;
+            }
+        }
+        if(anchor == null) {
+            unanchored.add(machine);
+            return;
+        }
+        Map<Integer, Set<DynamicMachine>> byState = anchors.computeIfAbsent(anchor, a -> new HashMap<>());
+        for (Integer stateId : anchorStates) {
+            byState.computeIfAbsent(stateId, id -> new HashSet<>()).add(machine);
+        }
+    }
+
+    public List<DynamicMachine> getCandidates(World world, BlockPos controllerPos) {
+        Set<DynamicMachine> found = new HashSet<>(unanchored);
+        BlockPos.PooledMutableBlockPos at = BlockPos.PooledMutableBlockPos.retain();
+        try {
+            for (Map.Entry<BlockPos, Map<Integer, Set<DynamicMachine>>> entry : anchors.entrySet()) {
+                BlockPos offset = entry.getKey();
+                at.setPos(controllerPos.getX() + offset.getX(), controllerPos.getY() + offset.getY(), controllerPos.getZ() + offset.getZ());
+                if(!world.isBlockLoaded(at)) {
+                    continue;
+                }
+                Set<DynamicMachine> matching = entry.getValue().get(Block.getStateId(world.getBlockState(at)));
+                if(matching != null) {
+                    found.addAll(matching);
+                }
+            }
+        } finally {
+            at.release();
+        }
+        List<DynamicMachine> candidates = Lists.newArrayListWithCapacity(found.size());
+        if(!found.isEmpty()) {
+            for (DynamicMachine machine : machines) {
+                if(found.contains(machine)) {
+                    candidates.add(machine);
+                }
+            }
+        }
+        return candidates;
+    }
+
+}
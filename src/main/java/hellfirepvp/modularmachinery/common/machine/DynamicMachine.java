@@ -19,6 +19,7 @@ import hellfirepvp.modularmachinery.common.modifier.ModifierReplacement;
 import hellfirepvp.modularmachinery.common.modifier.RecipeModifier;
 import hellfirepvp.modularmachinery.common.tiles.base.TileColorableMachineComponent;
 import hellfirepvp.modularmachinery.common.util.BlockArray;
+import hellfirepvp.modularmachinery.common.util.CompiledBlockArray;
 import hellfirepvp.modularmachinery.common.util.MiscUtils;
 import hellfirepvp.modularmachinery.common.util.nbt.NBTJsonDeserializer;
 import net.minecraft.block.Block;
@@ -29,6 +30,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.JsonUtils;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.StringUtils;
+import net.minecraft.util.EnumFacing;
 import net.minecraft.util.Tuple;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
@@ -56,7 +58,16 @@ public class DynamicMachine {
     private int definedColor = Config.machineColor;
     private Map<BlockPos, ModifierReplacement> modifiers = new HashMap<>();
 
+    private Map<EnumFacing, BlockArray> rotatedPatterns = new EnumMap<>(EnumFacing.class);
+    private Map<EnumFacing, Map<BlockPos, ModifierReplacement>> rotatedModifiers = new EnumMap<>(EnumFacing.class);
+    private Map<EnumFacing, Map<BlockPos, BlockArray.BlockInformation>> rotatedModifierReplacements = new EnumMap<>(EnumFacing.class);
+    private Map<EnumFacing, CompiledBlockArray> compiledPatterns = new EnumMap<>(EnumFacing.class);
+    private Map<EnumFacing, EnumFacing[]> matchingRotations = new EnumMap<>(EnumFacing.class);
+    private Map<EnumFacing, List<BlockPos>> rotatedComponentOffsets = new EnumMap<>(EnumFacing.class);
+
     private boolean requiresBlueprint = false;
+    private int parallelLanes = 1;
+    private int maxBatchSize = 1;
 
     public DynamicMachine(@Nonnull ResourceLocation registryName) {
         this.registryName = registryName;
@@ -70,6 +81,14 @@ public class DynamicMachine {
         return requiresBlueprint;
     }
 
+    public int getParallelLanes() {
+        return parallelLanes;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
     public BlockArray getPattern() {
         return pattern;
     }
@@ -79,7 +98,105 @@ public class DynamicMachine {
     }
 
     public Map<BlockPos, BlockArray.BlockInformation> getModifiersAsMatchingReplacements() {
-        return MiscUtils.remap(this.modifiers, ModifierReplacement::getBlockInformation);
+        return getModifiersAsMatchingReplacements(EnumFacing.NORTH);
+    }
+
+    public BlockArray getPattern(EnumFacing rotation) {
+        return rotatedPatterns.get(rotation);
+    }
+
+    //Pattern and modifier replacements of the given rotation, compiled for the full structure checks.
+    public CompiledBlockArray getCompiledPattern(EnumFacing rotation) {
+        return compiledPatterns.get(rotation);
+    }
+
+    public Map<BlockPos, ModifierReplacement> getModifiers(EnumFacing rotation) {
+        return rotatedModifiers.get(rotation);
+    }
+
+    public Map<BlockPos, BlockArray.BlockInformation> getModifiersAsMatchingReplacements(EnumFacing rotation) {
+        return rotatedModifierReplacements.get(rotation);
+    }
+
+    public List<BlockPos> getComponentOffsets(EnumFacing rotation) {
+        return rotatedComponentOffsets.get(rotation);
+    }
+
+    //Distinct rotations to try when matching, starting with the given one. Rotations that'd yield the same structure are left out.
+    public EnumFacing[] getMatchingRotations(EnumFacing preferred) {
+        return matchingRotations.get(preferred);
+    }
+
+    public void bakeRotations() {
+        BlockArray pattern = this.pattern;
+        Map<BlockPos, ModifierReplacement> modifiers = this.modifiers;
+        EnumFacing face = EnumFacing.NORTH;
+        do {
+            this.rotatedPatterns.put(face, pattern);
+            this.rotatedModifiers.put(face, modifiers);
+            Map<BlockPos, BlockArray.BlockInformation> replacements = MiscUtils.remap(modifiers, ModifierReplacement::getBlockInformation);
+            this.rotatedModifierReplacements.put(face, replacements);
+            this.rotatedComponentOffsets.put(face, pattern.getTileEntityOffsets());
+            face = face.rotateYCCW();
+            pattern = pattern.rotateYCCW();
+            modifiers = rotateModifiersYCCW(modifiers);
+        } while (face != EnumFacing.NORTH);
+        compilePatterns();
+
+        for (EnumFacing preferred : EnumFacing.HORIZONTALS) {
+            List<EnumFacing> distinct = Lists.newArrayList();
+            face = preferred;
+            do {
+                boolean duplicate = false;
+                for (EnumFacing other : distinct) {
+                    if(isSameStructure(face, other)) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if(!duplicate) {
+                    distinct.add(face);
+                }
+                face = face.rotateYCCW();
+            } while (face != preferred);
+            this.matchingRotations.put(preferred, distinct.toArray(new EnumFacing[distinct.size()]));
+        }
+    }
+
+    private boolean isSameStructure(EnumFacing rotation, EnumFacing other) {
+        if(!rotatedPatterns.get(rotation).isEquivalentTo(rotatedPatterns.get(other))) {
+            return false;
+        }
+        Map<BlockPos, ModifierReplacement> modifiers = rotatedModifiers.get(rotation);
+        Map<BlockPos, ModifierReplacement> otherModifiers = rotatedModifiers.get(other);
+        if(modifiers.size() != otherModifiers.size()) {
+            return false;
+        }
+        for (Map.Entry<BlockPos, ModifierReplacement> entry : modifiers.entrySet()) {
+            ModifierReplacement mod = entry.getValue();
+            ModifierReplacement otherMod = otherModifiers.get(entry.getKey());
+            if(otherMod == null ||
+                    mod.getModifier() != otherMod.getModifier() ||
+                    !mod.getDescriptionLines().equals(otherMod.getDescriptionLines()) ||
+                    !mod.getBlockInformation().isEquivalentTo(otherMod.getBlockInformation())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Compiled patterns hold numeric block state ids, so they have to be rebuilt whenever the block ids are remapped.
+    public void compilePatterns() {
+        this.compiledPatterns = CompiledBlockArray.compileRotations(this.rotatedPatterns, this.rotatedModifierReplacements);
+    }
+
+    private static Map<BlockPos, ModifierReplacement> rotateModifiersYCCW(Map<BlockPos, ModifierReplacement> modifiers) {
+        Map<BlockPos, ModifierReplacement> out = new HashMap<>();
+        for (Map.Entry<BlockPos, ModifierReplacement> entry : modifiers.entrySet()) {
+            BlockPos pos = entry.getKey();
+            out.put(new BlockPos(pos.getZ(), pos.getY(), -pos.getX()), entry.getValue().copyRotateYCCW());
+        }
+        return out;
     }
 
     public void setLocalizedName(String localizedName) {
@@ -160,6 +277,28 @@ public class DynamicMachine {
                 }
                 machine.definedColor = hexColor;
             }
+            if(root.has("parallel-lanes")) {
+                JsonElement elementLanes = root.get("parallel-lanes");
+                if(!elementLanes.isJsonPrimitive() || !elementLanes.getAsJsonPrimitive().isNumber()) {
+                    throw new JsonParseException("'parallel-lanes' has to be a number! Found " + elementLanes.toString() + " instead!");
+                }
+                int lanes = elementLanes.getAsInt();
+                if(lanes < 1 || lanes > 64) {
+                    throw new JsonParseException("'parallel-lanes' has to be between 1 and 64! Found " + lanes + " instead!");
+                }
+                machine.parallelLanes = lanes;
+            }
+            if(root.has("max-batch-size")) {
+                JsonElement elementBatch = root.get("max-batch-size");
+                if(!elementBatch.isJsonPrimitive() || !elementBatch.getAsJsonPrimitive().isNumber()) {
+                    throw new JsonParseException("'max-batch-size' has to be a number! Found " + elementBatch.toString() + " instead!");
+                }
+                int batchSize = elementBatch.getAsInt();
+                if(batchSize < 1) {
+                    throw new JsonParseException("'max-batch-size' has to be at least 1! Found " + batchSize + " instead!");
+                }
+                machine.maxBatchSize = batchSize;
+            }
 
             for (int i = 0; i < parts.size(); i++) {
                 JsonElement element = parts.get(i);
@@ -267,11 +406,16 @@ public class DynamicMachine {
             addCoordinates("y", part, avY);
             addCoordinates("z", part, avZ);
 
-            for (BlockPos permutation : buildPermutations(avX, avY, avZ)) {
-                if(permutation.getX() == 0 && permutation.getY() == 0 && permutation.getZ() == 0) {
-                    continue; //We're not going to overwrite the controller.
+            //Ranges can be huge; don't build the list of permutations up front.
+            for (int x : avX) {
+                for (int y : avY) {
+                    for (int z : avZ) {
+                        if(x == 0 && y == 0 && z == 0) {
+                            continue; //We're not going to overwrite the controller.
+                        }
+                        pattern.addBlock(x, y, z, information);
+                    }
                 }
-                pattern.addBlock(permutation, information);
             }
         }
 
@@ -33,6 +33,7 @@ public class MachineRegistry implements Iterable<DynamicMachine> {
 
     private static MachineRegistry INSTANCE = new MachineRegistry();
     private static Map<ResourceLocation, DynamicMachine> REGISTRY_MACHINERY;
+    private static DiscoveryIndex discoveryIndex = new DiscoveryIndex(Collections.emptyList());
 
     private MachineRegistry() {}
 
@@ -51,6 +52,10 @@ public class MachineRegistry implements Iterable<DynamicMachine> {
         return REGISTRY_MACHINERY.get(name);
     }
 
+    public DiscoveryIndex getDiscoveryIndex() {
+        return discoveryIndex;
+    }
+
     public void buildRegistry() {
         REGISTRY_MACHINERY = new HashMap<>();
     }
@@ -104,8 +109,21 @@ public class MachineRegistry implements Iterable<DynamicMachine> {
 
     public void registerMachines(Collection<DynamicMachine> machines) {
         for (DynamicMachine machine : machines) {
+            machine.bakeRotations();
             REGISTRY_MACHINERY.put(machine.getRegistryName(), machine);
         }
+        discoveryIndex = new DiscoveryIndex(REGISTRY_MACHINERY.values());
+    }
+
+    public void onBlockIdsRemapped() {
+        if(REGISTRY_MACHINERY == null) {
+            return;
+        }
+        for (DynamicMachine machine : REGISTRY_MACHINERY.values()) {
+            machine.compilePatterns();
+        }
+        //Anchors are keyed by state id as well.
+        discoveryIndex = new DiscoveryIndex(REGISTRY_MACHINERY.values());
     }
 
 }
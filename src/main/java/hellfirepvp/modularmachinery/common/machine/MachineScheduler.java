@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.machine;
+
+import hellfirepvp.modularmachinery.common.data.Config;
+import hellfirepvp.modularmachinery.common.tiles.TileMachineController;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: MachineScheduler
+ * Date: 17.10.2026 / 19:30
+ */
+public class MachineScheduler {
+
+    private static final Map<Integer, MachineScheduler> SCHEDULERS = new HashMap<>();
+
+    //Controllers run in the order they asked for it; whatever doesn't fit into a tick's budget goes first next tick.
+    private final LinkedHashSet<TileMachineController> queue = new LinkedHashSet<>();
+
+    private MachineScheduler() {}
+
+    public static boolean isEnabled() {
+        return Config.machineSchedulerBudget > 0;
+    }
+
+    public static MachineScheduler getScheduler(World world) {
+        return SCHEDULERS.computeIfAbsent(world.provider.getDimension(), dim -> new MachineScheduler());
+    }
+
+    public void schedule(TileMachineController controller) {
+        this.queue.add(controller);
+    }
+
+    public void unschedule(TileMachineController controller) {
+        this.queue.remove(controller);
+    }
+
+    private void runQueued(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        //Always do at least one, so an overloaded world still makes progress.
+        while (!this.queue.isEmpty()) {
+            //Scheduled work can (un)schedule other controllers, so don't hold on to an iterator.
+            Iterator<TileMachineController> iterator = this.queue.iterator();
+            TileMachineController controller = iterator.next();
+            iterator.remove();
+            if(controller.isInvalid()) {
+                continue;
+            }
+            controller.runScheduledWork();
+            if(System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+    }
+
+    public static class EventHandler {
+
+        @SubscribeEvent
+        public void onWorldTick(TickEvent.WorldTickEvent event) {
+            if(event.side != Side.SERVER || event.phase != TickEvent.Phase.END) {
+                return;
+            }
+            MachineScheduler scheduler = SCHEDULERS.get(event.world.provider.getDimension());
+            if(scheduler != null && !scheduler.queue.isEmpty()) {
+                scheduler.runQueued((long) (Config.machineSchedulerBudget * 1_000_000D));
+            }
+        }
+
+        @SubscribeEvent
+        public void onWorldUnload(WorldEvent.Unload event) {
+            World world = event.getWorld();
+            if(world.isRemote) {
+                return;
+            }
+            SCHEDULERS.remove(world.provider.getDimension());
+        }
+
+    }
+
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.machine;
+
+import hellfirepvp.modularmachinery.common.tiles.TileMachineController;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import java.util.*;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: StructureIndex
+ * Date: 17.10.2026 / 10:12
+ */
+public class StructureIndex {
+
+    private static final StructureIndex INSTANCE = new StructureIndex();
+
+    private final Map<Integer, Map<Long, Map<BlockPos, List<TileMachineController>>>> index = new HashMap<>();
+    private final Map<TileMachineController, TrackedStructure> tracked = new HashMap<>();
+    private final Map<Integer, Map<Long, List<WatchedArea>>> areaIndex = new HashMap<>();
+    private final Map<TileMachineController, WatchedArea> watched = new HashMap<>();
+
+    private StructureIndex() {}
+
+    public static StructureIndex getIndex() {
+        return INSTANCE;
+    }
+
+    public void track(TileMachineController controller, Collection<BlockPos> positions) {
+        untrack(controller);
+        int dim = controller.getWorld().provider.getDimension();
+        Map<Long, Map<BlockPos, List<TileMachineController>>> dimIndex = index.computeIfAbsent(dim, d -> new HashMap<>());
+        for (BlockPos pos : positions) {
+            long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+            dimIndex.computeIfAbsent(chunkKey, k -> new HashMap<>())
+                    .computeIfAbsent(pos, p -> new ArrayList<>(1))
+                    .add(controller);
+        }
+        tracked.put(controller, new TrackedStructure(dim, positions));
+    }
+
+    public void untrack(TileMachineController controller) {
+        TrackedStructure structure = tracked.remove(controller);
+        if(structure == null) {
+            return;
+        }
+        Map<Long, Map<BlockPos, List<TileMachineController>>> dimIndex = index.get(structure.dimension);
+        if(dimIndex == null) {
+            return;
+        }
+        for (BlockPos pos : structure.positions) {
+            long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+            Map<BlockPos, List<TileMachineController>> chunkIndex = dimIndex.get(chunkKey);
+            if(chunkIndex == null) {
+                continue;
+            }
+            List<TileMachineController> controllers = chunkIndex.get(pos);
+            if(controllers != null) {
+                controllers.remove(controller);
+                if(controllers.isEmpty()) {
+                    chunkIndex.remove(pos);
+                    if(chunkIndex.isEmpty()) {
+                        dimIndex.remove(chunkKey);
+                    }
+                }
+            }
+        }
+    }
+
+    public void watchArea(TileMachineController controller, BlockPos min, BlockPos max) {
+        unwatchArea(controller);
+        WatchedArea area = new WatchedArea(controller, controller.getWorld().provider.getDimension(), min, max);
+        Map<Long, List<WatchedArea>> dimIndex = areaIndex.computeIfAbsent(area.dimension, d -> new HashMap<>());
+        for (long chunkKey : area.chunkKeys) {
+            dimIndex.computeIfAbsent(chunkKey, k -> new ArrayList<>(1)).add(area);
+        }
+        watched.put(controller, area);
+    }
+
+    public void unwatchArea(TileMachineController controller) {
+        WatchedArea area = watched.remove(controller);
+        if(area == null) {
+            return;
+        }
+        Map<Long, List<WatchedArea>> dimIndex = areaIndex.get(area.dimension);
+        if(dimIndex == null) {
+            return;
+        }
+        for (long chunkKey : area.chunkKeys) {
+            List<WatchedArea> areas = dimIndex.get(chunkKey);
+            if(areas != null) {
+                areas.remove(area);
+                if(areas.isEmpty()) {
+                    dimIndex.remove(chunkKey);
+                }
+            }
+        }
+    }
+
+    private void notifyChange(World world, BlockPos pos) {
+        Map<Long, List<WatchedArea>> dimAreas = areaIndex.get(world.provider.getDimension());
+        if(dimAreas != null) {
+            List<WatchedArea> areas = dimAreas.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+            if(areas != null) {
+                for (WatchedArea area : areas) {
+                    if(area.contains(pos)) {
+                        area.controller.wakeUp();
+                    }
+                }
+            }
+        }
+
+        Map<Long, Map<BlockPos, List<TileMachineController>>> dimIndex = index.get(world.provider.getDimension());
+        if(dimIndex == null) {
+            return;
+        }
+        Map<BlockPos, List<TileMachineController>> chunkIndex = dimIndex.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if(chunkIndex == null) {
+            return;
+        }
+        List<TileMachineController> controllers = chunkIndex.get(pos);
+        if(controllers != null) {
+            for (TileMachineController controller : controllers) {
+                controller.onStructureBlockChanged(pos);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        World world = event.getWorld();
+        if(world.isRemote) {
+            return;
+        }
+        notifyChange(world, event.getPos());
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        World world = event.getWorld();
+        if(world.isRemote) {
+            return;
+        }
+        Chunk ch = event.getChunk();
+        long loadedChunk = ChunkPos.asLong(ch.x, ch.z);
+        Map<Long, List<WatchedArea>> dimAreas = areaIndex.get(world.provider.getDimension());
+        if(dimAreas != null) {
+            List<WatchedArea> areas = dimAreas.get(loadedChunk);
+            if(areas != null) {
+                for (WatchedArea area : areas) {
+                    area.controller.wakeUp();
+                }
+            }
+        }
+        Map<Long, Map<BlockPos, List<TileMachineController>>> dimIndex = index.get(world.provider.getDimension());
+        if(dimIndex == null) {
+            return;
+        }
+        Map<BlockPos, List<TileMachineController>> chunkIndex = dimIndex.get(loadedChunk);
+        if(chunkIndex == null) {
+            return;
+        }
+        //Positions in unloaded chunks are assumed to be unchanged; verify them once they're available again.
+        for (Map.Entry<BlockPos, List<TileMachineController>> entry : chunkIndex.entrySet()) {
+            for (TileMachineController controller : entry.getValue()) {
+                controller.onStructureBlockChanged(entry.getKey());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        World world = event.getWorld();
+        if(world.isRemote) {
+            return;
+        }
+        int dim = world.provider.getDimension();
+        index.remove(dim);
+        tracked.values().removeIf(structure -> structure.dimension == dim);
+        areaIndex.remove(dim);
+        watched.values().removeIf(area -> area.dimension == dim);
+    }
+
+    private static class TrackedStructure {
+
+        private final int dimension;
+        private final Collection<BlockPos> positions;
+
+        private TrackedStructure(int dimension, Collection<BlockPos> positions) {
+            this.dimension = dimension;
+            this.positions = positions;
+        }
+
+    }
+
+    private static class WatchedArea {
+
+        private final TileMachineController controller;
+        private final int dimension;
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+        private final List<Long> chunkKeys = new ArrayList<>();
+
+        private WatchedArea(TileMachineController controller, int dimension, BlockPos min, BlockPos max) {
+            this.controller = controller;
+            this.dimension = dimension;
+            this.minX = min.getX();
+            this.minY = min.getY();
+            this.minZ = min.getZ();
+            this.maxX = max.getX();
+            this.maxY = max.getY();
+            this.maxZ = max.getZ();
+            for (int chX = minX >> 4; chX <= maxX >> 4; chX++) {
+                for (int chZ = minZ >> 4; chZ <= maxZ >> 4; chZ++) {
+                    chunkKeys.add(ChunkPos.asLong(chX, chZ));
+                }
+            }
+        }
+
+        private boolean contains(BlockPos pos) {
+            return pos.getX() >= minX && pos.getX() <= maxX &&
+                    pos.getY() >= minY && pos.getY() <= maxY &&
+                    pos.getZ() >= minZ && pos.getZ() <= maxZ;
+        }
+
+    }
+
+}
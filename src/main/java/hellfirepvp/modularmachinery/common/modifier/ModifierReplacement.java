@@ -40,6 +40,16 @@ public class ModifierReplacement {
         this.description = MiscUtils.splitStringBy(description, "\n");
     }
 
+    private ModifierReplacement(BlockArray.BlockInformation info, RecipeModifier modifier, List<String> description) {
+        this.info = info;
+        this.modifier = modifier;
+        this.description = description;
+    }
+
+    public ModifierReplacement copyRotateYCCW() {
+        return new ModifierReplacement(this.info.copyRotateYCCW(), this.modifier, this.description);
+    }
+
     public BlockArray.BlockInformation getBlockInformation() {
         return info;
     }
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.network;
+
+import hellfirepvp.modularmachinery.common.tiles.base.TileEntitySynchronized;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.client.Minecraft;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: PktSyncTileFields
+ * Date: 17.10.2026 / 14:20
+ */
+public class PktSyncTileFields implements IMessage, IMessageHandler<PktSyncTileFields, IMessage> {
+
+    private BlockPos pos;
+    private int fields;
+    private ByteBuf data;
+
+    public PktSyncTileFields() {}
+
+    public PktSyncTileFields(BlockPos pos, int fields, ByteBuf data) {
+        this.pos = pos;
+        this.fields = fields;
+        this.data = data;
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        this.pos = BlockPos.fromLong(buf.readLong());
+        this.fields = buf.readInt();
+        this.data = buf.readBytes(buf.readInt());
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeLong(this.pos.toLong());
+        buf.writeInt(this.fields);
+        buf.writeInt(this.data.readableBytes());
+        buf.writeBytes(this.data, this.data.readerIndex(), this.data.readableBytes());
+    }
+
+    @Override
+    public IMessage onMessage(PktSyncTileFields message, MessageContext ctx) {
+        Minecraft.getMinecraft().addScheduledTask(() -> applyFields(message));
+        return null;
+    }
+
+    private void applyFields(PktSyncTileFields message) {
+        try {
+            World world = Minecraft.getMinecraft().world;
+            if(world == null || !world.isBlockLoaded(message.pos)) {
+                return;
+            }
+            TileEntity te = world.getTileEntity(message.pos);
+            if(te instanceof TileEntitySynchronized) {
+                ((TileEntitySynchronized) te).readSyncFields(message.fields, message.data);
+            }
+        } finally {
+            message.data.release();
+        }
+    }
+
+}
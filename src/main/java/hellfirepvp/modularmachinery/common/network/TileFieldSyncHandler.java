@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.network;
+
+import hellfirepvp.modularmachinery.ModularMachinery;
+import hellfirepvp.modularmachinery.common.tiles.base.TileEntitySynchronized;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: TileFieldSyncHandler
+ * Date: 17.10.2026 / 14:35
+ */
+public class TileFieldSyncHandler {
+
+    private static final TileFieldSyncHandler INSTANCE = new TileFieldSyncHandler();
+
+    private final Set<TileEntitySynchronized> pending = new LinkedHashSet<>();
+
+    private TileFieldSyncHandler() {}
+
+    public static TileFieldSyncHandler getHandler() {
+        return INSTANCE;
+    }
+
+    public void queue(TileEntitySynchronized tile) {
+        pending.add(tile);
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if(event.phase != TickEvent.Phase.END || pending.isEmpty()) {
+            return;
+        }
+        //Coalesce all field changes of a tick into a single message per tile.
+        List<TileEntitySynchronized> tiles = new ArrayList<>(pending);
+        pending.clear();
+        for (TileEntitySynchronized tile : tiles) {
+            int fields = tile.pollSyncFields();
+            World world = tile.getWorld();
+            if(fields == 0 || tile.isInvalid() || !(world instanceof WorldServer)) {
+                continue;
+            }
+            BlockPos pos = tile.getPos();
+            if(!world.isBlockLoaded(pos)) {
+                continue;
+            }
+            PlayerChunkMapEntry entry = ((WorldServer) world).getPlayerChunkMap().getEntry(pos.getX() >> 4, pos.getZ() >> 4);
+            if(entry == null) {
+                continue;
+            }
+            ByteBuf data = Unpooled.buffer();
+            tile.writeSyncFields(fields, data);
+            entry.sendPacket(ModularMachinery.NET_CHANNEL.getPacketFrom(new PktSyncTileFields(pos, fields, data)));
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.profiling;
+
+import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
+import hellfirepvp.modularmachinery.common.tiles.TileMachineController;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import javax.annotation.Nullable;
+
+import java.util.*;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: ControllerProfiler
+ * Date: 17.10.2026 / 20:10
+ */
+public class ControllerProfiler {
+
+    private static volatile boolean active = false;
+    private static long sessionStart = 0L, sessionEnd = 0L;
+    //Keyed by dimension and position so a session never keeps unloaded controllers or their worlds alive.
+    private static Map<Integer, Map<BlockPos, ProfileEntry>> entries = new HashMap<>();
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    public static void startSession() {
+        entries = new HashMap<>();
+        RecipeStatistics.reset();
+        sessionStart = System.nanoTime();
+        sessionEnd = 0L;
+        active = true;
+    }
+
+    public static void stopSession() {
+        if(active) {
+            active = false;
+            sessionEnd = System.nanoTime();
+        }
+    }
+
+    public static long getSessionLength() {
+        if(sessionStart == 0L) {
+            return 0L;
+        }
+        return (active ? System.nanoTime() : sessionEnd) - sessionStart;
+    }
+
+    public static int getProfiledControllers() {
+        int controllers = 0;
+        for (Map<BlockPos, ProfileEntry> dimEntries : entries.values()) {
+            controllers += dimEntries.size();
+        }
+        return controllers;
+    }
+
+    //Returns 0 if nothing is being profiled, which makes the matching stop(...) call return right away.
+    public static long start() {
+        return active ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(TileMachineController controller, Phase phase, long start) {
+        if(start == 0L || !active) {
+            return;
+        }
+        long spent = System.nanoTime() - start;
+        int dimension = controller.getWorld().provider.getDimension();
+        ProfileEntry entry = entries.computeIfAbsent(dimension, dim -> new HashMap<>())
+                .computeIfAbsent(controller.getPos(), pos -> new ProfileEntry(dimension, pos));
+        entry.machine = controller.getFoundMachine();
+        entry.phaseNanos[phase.ordinal()] += spent;
+    }
+
+    public static List<ProfileEntry> getTop(int amount) {
+        List<ProfileEntry> sorted = new ArrayList<>();
+        for (Map<BlockPos, ProfileEntry> dimEntries : entries.values()) {
+            sorted.addAll(dimEntries.values());
+        }
+        sorted.sort(Comparator.comparingLong(ProfileEntry::getTotalNanos).reversed());
+        return sorted.subList(0, Math.min(Math.max(0, amount), sorted.size()));
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        World world = event.getWorld();
+        if(!world.isRemote) {
+            entries.remove(world.provider.getDimension());
+        }
+    }
+
+    public static class ProfileEntry {
+
+        private final int dimension;
+        private final BlockPos pos;
+        private final long[] phaseNanos = new long[Phase.values().length];
+        @Nullable
+        private DynamicMachine machine = null;
+
+        private ProfileEntry(int dimension, BlockPos pos) {
+            this.dimension = dimension;
+            this.pos = pos;
+        }
+
+        public int getDimension() {
+            return dimension;
+        }
+
+        public BlockPos getPos() {
+            return pos;
+        }
+
+        //The machine the controller had formed the last time it was profiled.
+        @Nullable
+        public DynamicMachine getMachine() {
+            return machine;
+        }
+
+        public long getNanos(Phase phase) {
+            return phaseNanos[phase.ordinal()];
+        }
+
+        public long getTotalNanos() {
+            long total = 0L;
+            for (long nanos : phaseNanos) {
+                total += nanos;
+            }
+            return total;
+        }
+
+    }
+
+    public static enum Phase {
+
+        STRUCTURE_CHECK("structure"),
+        COMPONENT_REFRESH("components"),
+        RECIPE_SEARCH("search"),
+        ENERGY_TICK("energy"),
+        COMPLETION("completion");
+
+        private final String displayName;
+
+        private Phase(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+}
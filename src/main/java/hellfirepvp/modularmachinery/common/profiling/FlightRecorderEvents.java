@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.profiling;
+
+import hellfirepvp.modularmachinery.ModularMachinery;
+import hellfirepvp.modularmachinery.common.profiling.jfr.MachineFlightEvents;
+import hellfirepvp.modularmachinery.common.tiles.TileMachineController;
+
+import javax.annotation.Nullable;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: FlightRecorderEvents
+ * Date: 17.10.2026 / 22:55
+ */
+public class FlightRecorderEvents {
+
+    private static boolean available = false;
+
+    //MachineFlightEvents must not be touched unless this found jdk.jfr, or older JVMs fail to load it.
+    public static void register() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+        } catch (ClassNotFoundException exc) {
+            return;
+        }
+        try {
+            MachineFlightEvents.register();
+            available = true;
+        } catch (Throwable tr) {
+            ModularMachinery.log.warn("Couldn't register Java Flight Recorder events; machines won't show up in recordings.", tr);
+        }
+    }
+
+    public static boolean isAvailable() {
+        return available;
+    }
+
+    //Returns null unless a recording is running that has this event type enabled.
+    @Nullable
+    public static Object begin(Type type) {
+        return available ? MachineFlightEvents.begin(type) : null;
+    }
+
+    public static void commit(@Nullable Object event, TileMachineController controller, int count) {
+        commit(event, controller, count, null);
+    }
+
+    public static void commit(@Nullable Object event, TileMachineController controller, int count, @Nullable String recipe) {
+        if(event != null) {
+            MachineFlightEvents.commit(event, controller, count, recipe);
+        }
+    }
+
+    public static enum Type {
+
+        CONTROLLER_TICK,
+        STRUCTURE_MATCH,
+        COMPONENT_REFRESH,
+        RECIPE_SEARCH,
+        CRAFT_COMPLETION
+
+    }
+
+}
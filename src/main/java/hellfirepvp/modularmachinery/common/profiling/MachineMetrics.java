@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.profiling;
+
+import hellfirepvp.modularmachinery.common.crafting.helper.RecipeCraftingContext;
+import hellfirepvp.modularmachinery.common.data.Config;
+import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
+import hellfirepvp.modularmachinery.common.machine.MachineComponent;
+import net.minecraft.util.ResourceLocation;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: MachineMetrics
+ * Date: 17.10.2026 / 21:40
+ */
+public class MachineMetrics {
+
+    private static final String PREFIX = "modularmachinery_";
+    private static final Map<ResourceLocation, MachineTypeMetrics> METRICS = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return Config.metricsEnabled;
+    }
+
+    private static MachineTypeMetrics get(ResourceLocation machine) {
+        return METRICS.computeIfAbsent(machine, m -> new MachineTypeMetrics());
+    }
+
+    public static void recordCraft(DynamicMachine machine, int batchSize) {
+        if(isEnabled()) {
+            get(machine.getRegistryName()).craftsCompleted.add(batchSize);
+        }
+    }
+
+    public static void recordTick(DynamicMachine machine, boolean crafting) {
+        if(isEnabled()) {
+            MachineTypeMetrics metrics = get(machine.getRegistryName());
+            (crafting ? metrics.ticksCrafting : metrics.ticksIdle).increment();
+        }
+    }
+
+    //Dormant controllers don't tick, so their idle ticks are added up once they wake up or unload.
+    public static void recordIdleTicks(DynamicMachine machine, long ticks) {
+        if(isEnabled() && ticks > 0) {
+            get(machine.getRegistryName()).ticksIdle.add(ticks);
+        }
+    }
+
+    public static void recordFormation(DynamicMachine machine) {
+        if(isEnabled()) {
+            get(machine.getRegistryName()).structureFormations.increment();
+        }
+    }
+
+    public static long startSearch() {
+        return isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    public static void recordSearch(DynamicMachine machine, long start) {
+        if(start == 0L || !isEnabled()) {
+            return;
+        }
+        MachineTypeMetrics metrics = get(machine.getRegistryName());
+        metrics.recipeSearches.increment();
+        metrics.recipeSearchNanos.add(System.nanoTime() - start);
+    }
+
+    public static void recordEnergy(RecipeCraftingContext context, MachineComponent.IOType ioType, long amount) {
+        if(isEnabled() && amount > 0) {
+            MachineTypeMetrics metrics = get(context.getParentRecipe().getOwningMachineIdentifier());
+            (ioType == MachineComponent.IOType.INPUT ? metrics.energyConsumed : metrics.energyProduced).add(amount);
+        }
+    }
+
+    public static void recordItems(RecipeCraftingContext context, MachineComponent.IOType ioType, long amount) {
+        if(isEnabled() && amount > 0) {
+            MachineTypeMetrics metrics = get(context.getParentRecipe().getOwningMachineIdentifier());
+            (ioType == MachineComponent.IOType.INPUT ? metrics.itemsConsumed : metrics.itemsProduced).add(amount);
+        }
+    }
+
+    public static void recordFluid(RecipeCraftingContext context, MachineComponent.IOType ioType, long amount) {
+        if(isEnabled() && amount > 0) {
+            MachineTypeMetrics metrics = get(context.getParentRecipe().getOwningMachineIdentifier());
+            (ioType == MachineComponent.IOType.INPUT ? metrics.fluidConsumed : metrics.fluidProduced).add(amount);
+        }
+    }
+
+    //Prometheus text exposition format, one sample per machine type and metric.
+    public static String export() {
+        Map<ResourceLocation, MachineTypeMetrics> sorted = new TreeMap<>((a, b) -> a.toString().compareTo(b.toString()));
+        sorted.putAll(METRICS);
+        StringBuilder out = new StringBuilder();
+        appendCounter(out, sorted, "crafts_completed_total", "Crafts completed, counting each craft of a batch.", m -> m.craftsCompleted.sum());
+        appendCounter(out, sorted, "crafting_ticks_total", "Controller ticks with at least one recipe progressing.", m -> m.ticksCrafting.sum());
+        appendCounter(out, sorted, "idle_ticks_total", "Ticks of formed machines without any recipe progressing, dormant ticks included.", m -> m.ticksIdle.sum());
+        appendGauge(out, sorted, "idle_ratio", "Share of formed machine ticks spent idle, dormant ticks included.", m -> {
+            long idle = m.ticksIdle.sum(), total = idle + m.ticksCrafting.sum();
+            return total == 0 ? 0D : (double) idle / total;
+        });
+        appendCounter(out, sorted, "energy_consumed_total", "Energy drawn from energy input hatches.", m -> m.energyConsumed.sum());
+        appendCounter(out, sorted, "energy_produced_total", "Energy inserted into energy output hatches.", m -> m.energyProduced.sum());
+        appendCounter(out, sorted, "items_consumed_total", "Items taken from item input buses.", m -> m.itemsConsumed.sum());
+        appendCounter(out, sorted, "items_produced_total", "Items inserted into item output buses.", m -> m.itemsProduced.sum());
+        appendCounter(out, sorted, "fluid_consumed_millibuckets_total", "Fluid drained from fluid input hatches.", m -> m.fluidConsumed.sum());
+        appendCounter(out, sorted, "fluid_produced_millibuckets_total", "Fluid filled into fluid output hatches.", m -> m.fluidProduced.sum());
+        appendCounter(out, sorted, "recipe_searches_total", "Recipe searches run on the server thread.", m -> m.recipeSearches.sum());
+        appendGauge(out, sorted, "recipe_search_seconds_total", "Time spent in recipe searches on the server thread.", m -> m.recipeSearchNanos.sum() / 1_000_000_000D);
+        appendGauge(out, sorted, "recipe_search_seconds_avg", "Average time of a recipe search on the server thread.", m -> {
+            long searches = m.recipeSearches.sum();
+            return searches == 0 ? 0D : m.recipeSearchNanos.sum() / 1_000_000_000D / searches;
+        });
+        appendCounter(out, sorted, "structure_formations_total", "Times a controller formed this machine's structure.", m -> m.structureFormations.sum());
+        return out.toString();
+    }
+
+    private static void appendCounter(StringBuilder out, Map<ResourceLocation, MachineTypeMetrics> metrics, String name, String help,
+                                      Function<MachineTypeMetrics, Long> value) {
+        appendHeader(out, name, help, "counter");
+        for (Map.Entry<ResourceLocation, MachineTypeMetrics> entry : metrics.entrySet()) {
+            appendSample(out, name, entry.getKey()).append(value.apply(entry.getValue())).append('\n');
+        }
+    }
+
+    private static void appendGauge(StringBuilder out, Map<ResourceLocation, MachineTypeMetrics> metrics, String name, String help,
+                                    Function<MachineTypeMetrics, Double> value) {
+        appendHeader(out, name, help, name.endsWith("_total") ? "counter" : "gauge");
+        for (Map.Entry<ResourceLocation, MachineTypeMetrics> entry : metrics.entrySet()) {
+            appendSample(out, name, entry.getKey()).append(value.apply(entry.getValue())).append('\n');
+        }
+    }
+
+    private static void appendHeader(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static StringBuilder appendSample(StringBuilder out, String name, ResourceLocation machine) {
+        String label = machine.toString().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return out.append(PREFIX).append(name).append("{machine=\"").append(label).append("\"} ");
+    }
+
+    private static class MachineTypeMetrics {
+
+        private final LongAdder craftsCompleted = new LongAdder();
+        private final LongAdder ticksCrafting = new LongAdder();
+        private final LongAdder ticksIdle = new LongAdder();
+        private final LongAdder energyConsumed = new LongAdder();
+        private final LongAdder energyProduced = new LongAdder();
+        private final LongAdder itemsConsumed = new LongAdder();
+        private final LongAdder itemsProduced = new LongAdder();
+        private final LongAdder fluidConsumed = new LongAdder();
+        private final LongAdder fluidProduced = new LongAdder();
+        private final LongAdder recipeSearches = new LongAdder();
+        private final LongAdder recipeSearchNanos = new LongAdder();
+        private final LongAdder structureFormations = new LongAdder();
+
+    }
+
+}
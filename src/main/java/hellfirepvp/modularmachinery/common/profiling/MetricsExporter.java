@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.profiling;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hellfirepvp.modularmachinery.ModularMachinery;
+import hellfirepvp.modularmachinery.common.CommonProxy;
+import hellfirepvp.modularmachinery.common.data.Config;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: MetricsExporter
+ * Date: 17.10.2026 / 22:05
+ */
+public class MetricsExporter {
+
+    private static final MetricsExporter INSTANCE = new MetricsExporter();
+
+    private HttpServer server = null;
+    private ExecutorService serverExecutor = null;
+    private int ticksSinceDump = 0;
+
+    private MetricsExporter() {}
+
+    public static MetricsExporter getExporter() {
+        return INSTANCE;
+    }
+
+    public void startServer() {
+        if(!MachineMetrics.isEnabled() || Config.metricsHttpPort <= 0 || this.server != null) {
+            return;
+        }
+        try {
+            //Only reachable from the machine itself; put a proxy in front of it for anything else.
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), Config.metricsHttpPort), 0);
+            server.createContext("/metrics", this::handleRequest);
+            ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ModularMachinery Metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.start();
+            this.server = server;
+            this.serverExecutor = executor;
+            ModularMachinery.log.info("Serving machine metrics on http://127.0.0.1:" + Config.metricsHttpPort + "/metrics");
+        } catch (IOException exc) {
+            ModularMachinery.log.error("Couldn't start the machine metrics endpoint on port " + Config.metricsHttpPort, exc);
+        }
+    }
+
+    public void stopServer() {
+        if(this.server != null) {
+            this.server.stop(0);
+            this.server = null;
+            this.serverExecutor.shutdown();
+            this.serverExecutor = null;
+        }
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        byte[] response = MachineMetrics.export().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if(event.phase != TickEvent.Phase.END || !MachineMetrics.isEnabled() || Config.metricsDumpInterval <= 0) {
+            return;
+        }
+        this.ticksSinceDump++;
+        if(this.ticksSinceDump < Config.metricsDumpInterval * 20) {
+            return;
+        }
+        this.ticksSinceDump = 0;
+        File dir = new File(CommonProxy.dataHolder.getMainDirectory(), "statistics");
+        if(!dir.exists()) {
+            dir.mkdirs();
+        }
+        File out = new File(dir, "metrics.prom");
+        File tmp = new File(dir, "metrics.prom.tmp");
+        try {
+            //Scrapers reading the file shouldn't ever see a half-written one.
+            Files.write(tmp.toPath(), MachineMetrics.export().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp.toPath(), out.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exc) {
+            ModularMachinery.log.warn("Couldn't write machine metrics to " + out.getAbsolutePath(), exc);
+        }
+    }
+
+}
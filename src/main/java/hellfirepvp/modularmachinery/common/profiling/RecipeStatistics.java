@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.profiling;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import hellfirepvp.modularmachinery.common.crafting.MachineRecipe;
+import hellfirepvp.modularmachinery.common.crafting.helper.ComponentRequirement;
+import net.minecraft.util.ResourceLocation;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: RecipeStatistics
+ * Date: 17.10.2026 / 21:05
+ */
+public class RecipeStatistics {
+
+    //Recipe checks also run on the recipe search threads, so everything in here has to be thread-safe.
+    private static volatile Map<ResourceLocation, RecipeEntry> entries = new ConcurrentHashMap<>();
+
+    public static void reset() {
+        entries = new ConcurrentHashMap<>();
+    }
+
+    //Statistics are collected alongside the controller profiler; returns 0 while that isn't running.
+    public static long start() {
+        return ControllerProfiler.start();
+    }
+
+    public static void recordCheck(MachineRecipe recipe, @Nullable ComponentRequirement<?> failed, long start) {
+        if(start == 0L) {
+            return;
+        }
+        long spent = System.nanoTime() - start;
+        RecipeEntry entry = entries.computeIfAbsent(recipe.getRegistryName(), name -> new RecipeEntry(recipe));
+        entry.attempts.increment();
+        entry.nanos.add(spent);
+        if(failed == null) {
+            entry.successes.increment();
+        } else {
+            String reason = failed.getRequiredComponentType().getRegistryName() + ":" + failed.getActionType().name().toLowerCase();
+            entry.failures.computeIfAbsent(reason, r -> new LongAdder()).increment();
+        }
+    }
+
+    public static int getRecordedRecipes() {
+        return entries.size();
+    }
+
+    private static List<RecipeEntry> getSortedEntries() {
+        List<RecipeEntry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong((RecipeEntry e) -> e.nanos.sum()).reversed());
+        return sorted;
+    }
+
+    public static void writeCSV(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            writer.println("recipe,machine,attempts,successes,success_rate,total_ms,avg_us,failures");
+            for (RecipeEntry entry : getSortedEntries()) {
+                long attempts = entry.attempts.sum();
+                long successes = entry.successes.sum();
+                long nanos = entry.nanos.sum();
+                StringBuilder failures = new StringBuilder();
+                for (Map.Entry<String, Long> failure : entry.getFailures().entrySet()) {
+                    if(failures.length() > 0) {
+                        failures.append(' ');
+                    }
+                    failures.append(failure.getKey()).append('=').append(failure.getValue());
+                }
+                writer.println(String.format(Locale.ROOT, "%s,%s,%d,%d,%.4f,%.3f,%.3f,%s",
+                        entry.recipeName, entry.machineName, attempts, successes,
+                        attempts == 0 ? 0D : (double) successes / attempts,
+                        nanos / 1_000_000D, attempts == 0 ? 0D : nanos / 1_000D / attempts,
+                        failures.toString()));
+            }
+        }
+    }
+
+    public static void writeJson(File file) throws IOException {
+        JsonArray recipes = new JsonArray();
+        for (RecipeEntry entry : getSortedEntries()) {
+            long attempts = entry.attempts.sum();
+            long successes = entry.successes.sum();
+            JsonObject obj = new JsonObject();
+            obj.addProperty("recipe", entry.recipeName.toString());
+            obj.addProperty("machine", entry.machineName.toString());
+            obj.addProperty("attempts", attempts);
+            obj.addProperty("successes", successes);
+            obj.addProperty("successRate", attempts == 0 ? 0D : (double) successes / attempts);
+            obj.addProperty("totalNanos", entry.nanos.sum());
+            JsonObject failures = new JsonObject();
+            for (Map.Entry<String, Long> failure : entry.getFailures().entrySet()) {
+                failures.addProperty(failure.getKey(), failure.getValue());
+            }
+            obj.add("failures", failures);
+            recipes.add(obj);
+        }
+        String json = new GsonBuilder().setPrettyPrinting().create().toJson(recipes);
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class RecipeEntry {
+
+        private final ResourceLocation recipeName, machineName;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+        private RecipeEntry(MachineRecipe recipe) {
+            this.recipeName = recipe.getRegistryName();
+            this.machineName = recipe.getOwningMachineIdentifier();
+        }
+
+        private Map<String, Long> getFailures() {
+            Map<String, Long> sums = new TreeMap<>();
+            this.failures.forEach((reason, count) -> sums.put(reason, count.sum()));
+            return sums;
+        }
+
+    }
+
+}
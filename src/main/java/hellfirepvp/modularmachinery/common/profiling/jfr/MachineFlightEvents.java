@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.profiling.jfr;
+
+import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
+import hellfirepvp.modularmachinery.common.profiling.FlightRecorderEvents;
+import hellfirepvp.modularmachinery.common.tiles.TileMachineController;
+import jdk.jfr.*;
+import net.minecraft.util.math.BlockPos;
+
+import javax.annotation.Nullable;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: MachineFlightEvents
+ * Date: 17.10.2026 / 22:40
+ */
+public class MachineFlightEvents {
+
+    private static final EventType[] EVENT_TYPES = new EventType[FlightRecorderEvents.Type.values().length];
+
+    //Only ever called through FlightRecorderEvents, after it made sure the JVM ships jdk.jfr.
+    public static void register() {
+        register(FlightRecorderEvents.Type.CONTROLLER_TICK, ControllerTickEvent.class);
+        register(FlightRecorderEvents.Type.STRUCTURE_MATCH, StructureMatchEvent.class);
+        register(FlightRecorderEvents.Type.COMPONENT_REFRESH, ComponentRefreshEvent.class);
+        register(FlightRecorderEvents.Type.RECIPE_SEARCH, RecipeSearchEvent.class);
+        register(FlightRecorderEvents.Type.CRAFT_COMPLETION, CraftCompletionEvent.class);
+    }
+
+    private static void register(FlightRecorderEvents.Type type, Class<? extends MachineEvent> eventClass) {
+        FlightRecorder.register(eventClass);
+        EVENT_TYPES[type.ordinal()] = EventType.getEventType(eventClass);
+    }
+
+    @Nullable
+    public static Object begin(FlightRecorderEvents.Type type) {
+        //Checked before anything is allocated, so controllers don't produce garbage while nothing is recording.
+        EventType eventType = EVENT_TYPES[type.ordinal()];
+        if(eventType == null || !eventType.isEnabled()) {
+            return null;
+        }
+        MachineEvent event;
+        switch (type) {
+            case CONTROLLER_TICK:
+                event = new ControllerTickEvent();
+                break;
+            case STRUCTURE_MATCH:
+                event = new StructureMatchEvent();
+                break;
+            case COMPONENT_REFRESH:
+                event = new ComponentRefreshEvent();
+                break;
+            case RECIPE_SEARCH:
+                event = new RecipeSearchEvent();
+                break;
+            case CRAFT_COMPLETION:
+                event = new CraftCompletionEvent();
+                break;
+            default:
+                return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    public static void commit(Object token, TileMachineController controller, int count, @Nullable String recipe) {
+        MachineEvent event = (MachineEvent) token;
+        event.end();
+        if(!event.shouldCommit()) {
+            return;
+        }
+        DynamicMachine machine = controller.getFoundMachine();
+        BlockPos pos = controller.getPos();
+        event.machine = machine == null ? null : machine.getRegistryName().toString();
+        event.dimension = controller.getWorld().provider.getDimension();
+        event.x = pos.getX();
+        event.y = pos.getY();
+        event.z = pos.getZ();
+        event.count = count;
+        event.recipe = recipe;
+        event.commit();
+    }
+
+    @Category("Modular Machinery")
+    @StackTrace(false)
+    public static abstract class MachineEvent extends Event {
+
+        @Label("Machine")
+        String machine;
+
+        @Label("Dimension")
+        int dimension;
+
+        @Label("X")
+        int x;
+
+        @Label("Y")
+        int y;
+
+        @Label("Z")
+        int z;
+
+        @Label("Count")
+        @Description("Active lanes, matched structures, found components, recipe candidates or crafts, depending on the event")
+        int count;
+
+        @Label("Recipe")
+        String recipe;
+
+    }
+
+    @Name("modularmachinery.ControllerTick")
+    @Label("Controller Tick")
+    public static class ControllerTickEvent extends MachineEvent {}
+
+    @Name("modularmachinery.StructureMatch")
+    @Label("Structure Match")
+    public static class StructureMatchEvent extends MachineEvent {}
+
+    @Name("modularmachinery.ComponentRefresh")
+    @Label("Component Refresh")
+    public static class ComponentRefreshEvent extends MachineEvent {}
+
+    @Name("modularmachinery.RecipeSearch")
+    @Label("Recipe Search")
+    public static class RecipeSearchEvent extends MachineEvent {}
+
+    @Name("modularmachinery.CraftCompletion")
+    @Label("Craft Completion")
+    public static class CraftCompletionEvent extends MachineEvent {}
+
+}
@@ -36,6 +36,8 @@ import javax.annotation.Nullable;
 @Optional.Interface(iface = "ic2.api.energy.tile.IEnergySink", modid = "ic2")
 public class TileEnergyInputHatch extends TileEnergyHatch implements IEnergySink {
 
+    private MachineComponent component = null;
+
     public TileEnergyInputHatch() {}
 
     public TileEnergyInputHatch(EnergyHatchSize size) {
@@ -78,8 +80,9 @@ public class TileEnergyInputHatch extends TileEnergyHatch implements IEnergySink
     public double injectEnergy(EnumFacing directionFrom, double amount, double voltage) {
         double addable = Math.min((getMaxEnergy() - getCurrentEnergy()) / 4, amount);
         amount -= addable;
+        int prevEnergy = this.energy;
         this.energy = MathHelper.clamp(this.energy + MathHelper.floor(addable * 4), 0, this.size.maxEnergy);
-        markForUpdate();
+        onEnergyChanged(prevEnergy);
         return amount;
     }
 
@@ -92,12 +95,15 @@ public class TileEnergyInputHatch extends TileEnergyHatch implements IEnergySink
     @Nullable
     @Override
     public MachineComponent provideComponent() {
-        return new MachineComponent.EnergyHatch(MachineComponent.IOType.INPUT) {
-            @Override
-            public IEnergyHandler getContainerProvider() {
-                return TileEnergyInputHatch.this;
-            }
-        };
+        if(this.component == null) {
+            this.component = new MachineComponent.EnergyHatch(MachineComponent.IOType.INPUT) {
+                @Override
+                public IEnergyHandler getContainerProvider() {
+                    return TileEnergyInputHatch.this;
+                }
+            };
+        }
+        return this.component;
     }
 
 }
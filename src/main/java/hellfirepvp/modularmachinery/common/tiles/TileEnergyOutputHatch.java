@@ -42,6 +42,8 @@ import javax.annotation.Nullable;
 @Optional.Interface(iface = "ic2.api.energy.tile.IEnergySource", modid = "ic2")
 public class TileEnergyOutputHatch extends TileEnergyHatch implements IEnergySource {
 
+    private MachineComponent component = null;
+
     public TileEnergyOutputHatch() {}
 
     public TileEnergyOutputHatch(EnergyHatchSize size) {
@@ -50,6 +52,7 @@ public class TileEnergyOutputHatch extends TileEnergyHatch implements IEnergySou
 
     @Override
     public void update() {
+        int prevEnergy = this.energy;
         int transferCap = Math.min(this.size.transferLimit, this.energy);
         for (EnumFacing face : EnumFacing.VALUES) {
             if(Loader.isModLoaded("redstoneflux")) {
@@ -65,6 +68,7 @@ public class TileEnergyOutputHatch extends TileEnergyHatch implements IEnergySou
                 break;
             }
         }
+        onEnergyChanged(prevEnergy);
     }
 
     private int attemptFETransfer(EnumFacing face, int maxTransferLeft) {
@@ -141,8 +145,9 @@ public class TileEnergyOutputHatch extends TileEnergyHatch implements IEnergySou
     @Override
     @Optional.Method(modid = "ic2")
     public void drawEnergy(double amount) {
+        int prevEnergy = this.energy;
         this.energy = MathHelper.clamp(MathHelper.floor(this.energy - (amount * 4)), 0, this.size.maxEnergy);
-        markForUpdate();
+        onEnergyChanged(prevEnergy);
     }
 
     @Override
@@ -160,12 +165,15 @@ public class TileEnergyOutputHatch extends TileEnergyHatch implements IEnergySou
     @Nullable
     @Override
     public MachineComponent provideComponent() {
-        return new MachineComponent.EnergyHatch(MachineComponent.IOType.OUTPUT) {
-            @Override
-            public IEnergyHandler getContainerProvider() {
-                return TileEnergyOutputHatch.this;
-            }
-        };
+        if(this.component == null) {
+            this.component = new MachineComponent.EnergyHatch(MachineComponent.IOType.OUTPUT) {
+                @Override
+                public IEnergyHandler getContainerProvider() {
+                    return TileEnergyOutputHatch.this;
+                }
+            };
+        }
+        return this.component;
     }
 
 }
@@ -27,6 +27,8 @@ import javax.annotation.Nullable;
  */
 public class TileItemInputBus extends TileItemBus implements MachineComponentTile {
 
+    private MachineComponent component = null;
+
     public TileItemInputBus() {}
 
     public TileItemInputBus(ItemBusSize type) {
@@ -45,12 +47,15 @@ public class TileItemInputBus extends TileItemBus implements MachineComponentTil
     @Nullable
     @Override
     public MachineComponent provideComponent() {
-        return new MachineComponent.ItemBus(MachineComponent.IOType.INPUT) {
-            @Override
-            public IOInventory getContainerProvider() {
-                return TileItemInputBus.this.inventory;
-            }
-        };
+        if(this.component == null) {
+            this.component = new MachineComponent.ItemBus(MachineComponent.IOType.INPUT) {
+                @Override
+                public IOInventory getContainerProvider() {
+                    return TileItemInputBus.this.inventory;
+                }
+            };
+        }
+        return this.component;
     }
 
 }
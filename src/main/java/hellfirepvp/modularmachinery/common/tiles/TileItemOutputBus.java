@@ -27,6 +27,8 @@ import javax.annotation.Nullable;
  */
 public class TileItemOutputBus extends TileItemBus implements MachineComponentTile {
 
+    private MachineComponent component = null;
+
     public TileItemOutputBus() {}
 
     public TileItemOutputBus(ItemBusSize type) {
@@ -45,12 +47,15 @@ public class TileItemOutputBus extends TileItemBus implements MachineComponentTi
     @Nullable
     @Override
     public MachineComponent provideComponent() {
-        return new MachineComponent.ItemBus(MachineComponent.IOType.OUTPUT) {
-            @Override
-            public IOInventory getContainerProvider() {
-                return TileItemOutputBus.this.inventory;
-            }
-        };
+        if(this.component == null) {
+            this.component = new MachineComponent.ItemBus(MachineComponent.IOType.OUTPUT) {
+                @Override
+                public IOInventory getContainerProvider() {
+                    return TileItemOutputBus.this.inventory;
+                }
+            };
+        }
+        return this.component;
     }
 
 }
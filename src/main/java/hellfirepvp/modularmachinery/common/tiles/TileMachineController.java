@@ -13,21 +13,31 @@ import hellfirepvp.modularmachinery.ModularMachinery;
 import hellfirepvp.modularmachinery.common.block.BlockController;
 import hellfirepvp.modularmachinery.common.crafting.ActiveMachineRecipe;
 import hellfirepvp.modularmachinery.common.crafting.MachineRecipe;
+import hellfirepvp.modularmachinery.common.crafting.RecipeLane;
 import hellfirepvp.modularmachinery.common.crafting.RecipeRegistry;
+import hellfirepvp.modularmachinery.common.crafting.RecipeSearchExecutor;
 import hellfirepvp.modularmachinery.common.crafting.helper.ComponentRequirement;
 import hellfirepvp.modularmachinery.common.crafting.helper.RecipeCraftingContext;
+import hellfirepvp.modularmachinery.common.crafting.helper.RecipeSearchTask;
 import hellfirepvp.modularmachinery.common.data.Config;
 import hellfirepvp.modularmachinery.common.item.ItemBlueprint;
 import hellfirepvp.modularmachinery.common.lib.BlocksMM;
+import hellfirepvp.modularmachinery.common.machine.DiscoveryIndex;
 import hellfirepvp.modularmachinery.common.machine.DynamicMachine;
 import hellfirepvp.modularmachinery.common.machine.MachineComponent;
 import hellfirepvp.modularmachinery.common.machine.MachineRegistry;
+import hellfirepvp.modularmachinery.common.machine.MachineScheduler;
+import hellfirepvp.modularmachinery.common.machine.StructureIndex;
 import hellfirepvp.modularmachinery.common.modifier.ModifierReplacement;
+import hellfirepvp.modularmachinery.common.profiling.ControllerProfiler;
+import hellfirepvp.modularmachinery.common.profiling.FlightRecorderEvents;
+import hellfirepvp.modularmachinery.common.profiling.MachineMetrics;
 import hellfirepvp.modularmachinery.common.tiles.base.MachineComponentTile;
 import hellfirepvp.modularmachinery.common.tiles.base.TileColorableMachineComponent;
 import hellfirepvp.modularmachinery.common.tiles.base.TileEntityRestrictedTick;
 import hellfirepvp.modularmachinery.common.util.BlockArray;
 import hellfirepvp.modularmachinery.common.util.IOInventory;
+import io.netty.buffer.ByteBuf;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -36,7 +46,6 @@ import net.minecraft.nbt.NBTUtil;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
-import net.minecraft.util.Tuple;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
@@ -46,8 +55,12 @@ import net.minecraftforge.items.CapabilityItemHandler;
 
 import javax.annotation.Nullable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * This class is part of the Modular Machinery Mod
@@ -61,6 +74,9 @@ public class TileMachineController extends TileEntityRestrictedTick {
     public static final int BLUEPRINT_SLOT = 0;
     public static final int ACCELERATOR_SLOT = 1;
 
+    private static final int SYNC_STATUS = 1;
+    private static final int SYNC_PROGRESS = 2;
+
     private CraftingStatus craftingStatus = CraftingStatus.MISSING_STRUCTURE;
 
     private DynamicMachine foundMachine = null;
@@ -68,14 +84,24 @@ public class TileMachineController extends TileEntityRestrictedTick {
     private EnumFacing patternRotation = null;
     private IOInventory inventory;
 
-    private ActiveMachineRecipe activeRecipe = null;
+    private RecipeLane[] lanes = new RecipeLane[] { new RecipeLane() };
 
     private List<MachineComponent> foundComponents = Lists.newArrayList();
     private Map<BlockPos, ModifierReplacement> foundModifiers = new HashMap<>();
 
+    private boolean structureTracked = false, componentsChanged = false;
+    private boolean recipeSearchPending = false, energyChangePending = false;
+    private boolean dormant = false, discoveryPending = true, blueprintChanged = false, watchingArea = false;
+    private boolean periodicWorkDue = false, structureRevalidationDue = false;
+    private long idleDormantSince = -1L;
+    private List<TileColorableMachineComponent> linkedComponentTiles = Lists.newArrayList();
+    private Set<BlockPos> changedStructurePositions = new HashSet<>();
+    private List<BlockPos> nbtConstrainedOffsets = Lists.newArrayList();
+
     public TileMachineController() {
         this.inventory = buildInventory();
         this.inventory.setStackLimit(1, BLUEPRINT_SLOT);
+        this.inventory.setListener(this::onInventoryChanged);
     }
 
     private IOInventory buildInventory() {
@@ -92,127 +118,595 @@ public class TileMachineController extends TileEntityRestrictedTick {
     @Override
     public void doRestrictedTick() {
         if(!getWorld().isRemote) {
+            if(this.dormant) {
+                return;
+            }
+            recordIdleDormancy();
+            stopWatchingArea();
             if(getWorld().getStrongPower(getPos()) > 0) {
+                this.dormant = true; //Neighbor updates will wake us up again.
                 return;
             }
 
-            checkStructure();
+            Object tickEvent = FlightRecorderEvents.begin(FlightRecorderEvents.Type.CONTROLLER_TICK);
+            if(isPeriodicTick(20)) {
+                this.periodicWorkDue = true;
+            }
+            if(Config.structureRevalidationInterval > 0 && isPeriodicTick(Config.structureRevalidationInterval)) {
+                this.structureRevalidationDue = true;
+            }
+
+            if(MachineScheduler.isEnabled()) {
+                //Structure checks and recipe searches run later this tick, if the world's budget allows it.
+                if(hasScheduledWork()) {
+                    MachineScheduler.getScheduler(getWorld()).schedule(this);
+                }
+                tickMachine(false, true);
+            } else {
+                tickMachine(true, true);
+            }
+            updateDormancy();
+            FlightRecorderEvents.commit(tickEvent, this, getActiveLaneCount());
+        }
+    }
+
+    public void runScheduledWork() {
+        if(this.dormant) {
+            return;
+        }
+        tickMachine(true, false);
+        updateDormancy();
+    }
+
+    private boolean hasScheduledWork() {
+        return this.periodicWorkDue || this.structureRevalidationDue || this.blueprintChanged || this.componentsChanged || this.recipeSearchPending ||
+                !this.changedStructurePositions.isEmpty() || (this.foundMachine != null && !this.structureTracked);
+    }
+
+    private void tickMachine(boolean maintenance, boolean crafting) {
+        if(maintenance) {
+            long start = ControllerProfiler.start();
+            Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Type.STRUCTURE_MATCH);
+            int matchedStructures = checkStructure();
+            ControllerProfiler.stop(this, ControllerProfiler.Phase.STRUCTURE_CHECK, start);
+            if(matchedStructures > 0) {
+                FlightRecorderEvents.commit(event, this, matchedStructures);
+            }
+
+            boolean refreshComponents = this.componentsChanged;
+            start = ControllerProfiler.start();
+            event = refreshComponents ? FlightRecorderEvents.begin(FlightRecorderEvents.Type.COMPONENT_REFRESH) : null;
             updateComponents();
+            ControllerProfiler.stop(this, ControllerProfiler.Phase.COMPONENT_REFRESH, start);
+            FlightRecorderEvents.commit(event, this, this.foundComponents.size());
+        }
 
-            if(this.foundMachine != null && this.foundPattern != null && this.patternRotation != null) {
-                if(this.activeRecipe == null) {
-                    if(this.ticksExisted % 80 == 0) {
-                        searchMatchingRecipe();
-                        if(this.activeRecipe == null) {
-                            craftingStatus = CraftingStatus.NO_RECIPE;
-                        } else {
-                            craftingStatus = CraftingStatus.CRAFTING;
-                        }
-                        markForUpdate();
-                    }
-                } else {
-                    RecipeCraftingContext context = this.foundMachine.createContext(this.activeRecipe.getRecipe(), this.foundComponents, this.foundModifiers.values());
-                    this.craftingStatus = this.activeRecipe.tick(context); //handle energy IO and tick progression
-                    if(this.activeRecipe.isCompleted(this, context)) {
-                        this.activeRecipe.complete(context);
-                        this.activeRecipe.reset();
-                        context = this.foundMachine.createContext(this.activeRecipe.getRecipe(), this.foundComponents, this.foundModifiers.values());
-                        ComponentRequirement.CraftCheck result = context.canStartCrafting();
-                        switch (result) {
-                            case SUCCESS:
-                                context.startCrafting();
-                                this.craftingStatus = CraftingStatus.CRAFTING;
-                                break;
-                            case FAILURE_MISSING_INPUT:
-                                this.activeRecipe = null;
-                                searchMatchingRecipe();
-                                if(this.activeRecipe == null) {
-                                    this.craftingStatus = CraftingStatus.NO_RECIPE;
-                                } else {
-                                    this.craftingStatus = CraftingStatus.CRAFTING;
-                                }
-                                break;
-                        }
+        if(this.foundMachine != null && this.foundPattern != null && this.patternRotation != null) {
+            CraftingStatus prevStatus = this.craftingStatus;
+            //Energy changes every tick on most setups, so those only trigger a search once a second.
+            boolean searchRecipes = maintenance && (this.recipeSearchPending || (this.energyChangePending && this.periodicWorkDue));
+            boolean recipesChanged = false, progressChanged = false, searchDeferred = false;
+            for (RecipeLane lane : this.lanes) {
+                ActiveMachineRecipe prevRecipe = lane.getActiveRecipe();
+                CraftingStatus prevLaneStatus = lane.getStatus();
+                if(prevRecipe == null) {
+                    if(lane.getPendingSearch() != null) {
+                        //The running search might have missed this change, so search again once it's done.
+                        searchDeferred |= searchRecipes;
+                        long start = ControllerProfiler.start();
+                        collectSearchResult(lane);
+                        ControllerProfiler.stop(this, ControllerProfiler.Phase.RECIPE_SEARCH, start);
+                    } else if(searchRecipes) {
+                        searchMatchingRecipe(lane);
                     }
-                    markForUpdate();
+                } else if(crafting) {
+                    tickLane(lane);
                 }
-            } else {
-                craftingStatus = CraftingStatus.MISSING_STRUCTURE;
-                markForUpdate();
+                if(lane.getActiveRecipe() != prevRecipe) {
+                    updateProgressAnchor(lane);
+                    recipesChanged = true;
+                } else if(lane.getActiveRecipe() != null && (lane.getStatus() != prevLaneStatus || !isProgressLinear(lane))) {
+                    //Starting, stalling and resuming all break the linear progression clients assume.
+                    updateProgressAnchor(lane);
+                    progressChanged = true;
+                }
+            }
+            if((searchRecipes && !searchDeferred) || !hasIdleLane()) {
+                this.recipeSearchPending = false;
+                this.energyChangePending = false;
+            }
+            this.craftingStatus = hasCraftingLane() ? CraftingStatus.CRAFTING : CraftingStatus.NO_RECIPE;
+            if(crafting) {
+                MachineMetrics.recordTick(this.foundMachine, this.craftingStatus == CraftingStatus.CRAFTING);
+            }
+            syncCraftingState(prevStatus, recipesChanged, progressChanged);
+        } else if(craftingStatus != CraftingStatus.MISSING_STRUCTURE) {
+            craftingStatus = CraftingStatus.MISSING_STRUCTURE;
+            markFieldsForSync(SYNC_STATUS);
+        }
+        if(maintenance) {
+            this.periodicWorkDue = false;
+            this.structureRevalidationDue = false;
+        }
+    }
+
+    private void tickLane(RecipeLane lane) {
+        ActiveMachineRecipe activeRecipe = lane.getActiveRecipe();
+        RecipeCraftingContext context = getContext(lane, activeRecipe.getRecipe());
+        context.setBatchSize(activeRecipe.getBatchSize());
+        long start = ControllerProfiler.start();
+        lane.setStatus(activeRecipe.tick(context)); //handle energy IO and tick progression
+        ControllerProfiler.stop(this, ControllerProfiler.Phase.ENERGY_TICK, start);
+        if(activeRecipe.isCompleted(this, context)) {
+            start = ControllerProfiler.start();
+            Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Type.CRAFT_COMPLETION);
+            activeRecipe.complete(context);
+            FlightRecorderEvents.commit(event, this, activeRecipe.getBatchSize(), activeRecipe.getRecipe().getRegistryName().toString());
+            MachineMetrics.recordCraft(this.foundMachine, activeRecipe.getBatchSize());
+            activeRecipe.reset();
+            context.setBatchSize(1);
+            ComponentRequirement.CraftCheck result = context.canStartCrafting(true);
+            if(result == ComponentRequirement.CraftCheck.SUCCESS) {
+                activeRecipe.setBatchSize(context.findMaxBatchSize(this.foundMachine.getMaxBatchSize()));
+                context.startCrafting();
+                lane.setStatus(CraftingStatus.CRAFTING);
+            }
+            ControllerProfiler.stop(this, ControllerProfiler.Phase.COMPLETION, start);
+            if(result == ComponentRequirement.CraftCheck.FAILURE_MISSING_INPUT) {
+                lane.setActiveRecipe(null);
+                searchMatchingRecipe(lane);
+            }
+        }
+    }
+
+    private void syncCraftingState(CraftingStatus prevStatus, boolean recipesChanged, boolean progressChanged) {
+        if(recipesChanged) {
+            markForUpdate(); //Clients need the full recipe whenever a different one becomes active.
+            return;
+        }
+        int fields = 0;
+        if(this.craftingStatus != prevStatus) {
+            fields |= SYNC_STATUS;
+        }
+        if(progressChanged) {
+            fields |= SYNC_PROGRESS;
+        }
+        if(fields != 0) {
+            markFieldsForSync(fields);
+        } else if(hasActiveRecipe()) {
+            markDirty();
+        }
+    }
+
+    private int getRecipeDuration(RecipeLane lane) {
+        ActiveMachineRecipe activeRecipe = lane.getActiveRecipe();
+        if(activeRecipe == null) {
+            return 0;
+        }
+        return activeRecipe.getRecipeDuration(getContext(lane, activeRecipe.getRecipe()));
+    }
+
+    private boolean isProgressLinear(RecipeLane lane) {
+        return lane.isProgressLinear(getWorld().getTotalWorldTime(), getRecipeDuration(lane));
+    }
+
+    private void updateProgressAnchor(RecipeLane lane) {
+        lane.updateProgressAnchor(getWorld().getTotalWorldTime(), getRecipeDuration(lane));
+    }
+
+    private boolean hasActiveRecipe() {
+        for (RecipeLane lane : this.lanes) {
+            if(lane.getActiveRecipe() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int getActiveLaneCount() {
+        int active = 0;
+        for (RecipeLane lane : this.lanes) {
+            if(lane.getActiveRecipe() != null) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    private boolean hasIdleLane() {
+        for (RecipeLane lane : this.lanes) {
+            if(lane.getActiveRecipe() == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasPendingSearch() {
+        for (RecipeLane lane : this.lanes) {
+            if(lane.getPendingSearch() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cancelPendingSearches() {
+        for (RecipeLane lane : this.lanes) {
+            lane.cancelPendingSearch();
+        }
+    }
+
+    private boolean hasCraftingLane() {
+        for (RecipeLane lane : this.lanes) {
+            if(lane.getActiveRecipe() != null && lane.getStatus() == CraftingStatus.CRAFTING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updateLaneCount(int count) {
+        if(this.lanes.length == count) {
+            return;
+        }
+        RecipeLane[] resized = new RecipeLane[count];
+        for (int i = 0; i < count; i++) {
+            resized[i] = i < this.lanes.length ? this.lanes[i] : new RecipeLane();
+        }
+        this.lanes = resized;
+    }
+
+    private void resetLaneContexts() {
+        for (RecipeLane lane : this.lanes) {
+            lane.resetContext();
+        }
+    }
+
+    private void updateDormancy() {
+        if(this.foundMachine != null && this.foundPattern != null && this.patternRotation != null) {
+            this.dormant = !hasActiveRecipe() && this.structureTracked && !this.componentsChanged &&
+                    !this.recipeSearchPending && !this.energyChangePending && !this.blueprintChanged && !hasPendingSearch() &&
+                    this.changedStructurePositions.isEmpty() && this.nbtConstrainedOffsets.isEmpty();
+            if(this.dormant) {
+                //The next tick is the first one skipped.
+                this.idleDormantSince = getWorld().getTotalWorldTime() + 1;
             }
+        } else if(!this.discoveryPending) {
+            this.dormant = true;
+            watchDiscoveryArea();
+        }
+    }
+
+    //Any block change in here might complete a structure.
+    private void watchDiscoveryArea() {
+        int radius, minY, maxY;
+        DynamicMachine blueprint = getBlueprintMachine();
+        if(blueprint != null) {
+            BlockArray pattern = blueprint.getPattern();
+            radius = DiscoveryIndex.getHorizontalRadius(pattern);
+            minY = pattern.getMin().getY();
+            maxY = pattern.getMax().getY();
+        } else {
+            DiscoveryIndex index = MachineRegistry.getRegistry().getDiscoveryIndex();
+            radius = index.getAreaRadius();
+            minY = index.getAreaMinY();
+            maxY = index.getAreaMaxY();
         }
+        StructureIndex.getIndex().watchArea(this, getPos().add(-radius, minY, -radius), getPos().add(radius, maxY, radius));
+        this.watchingArea = true;
     }
 
-    private void searchMatchingRecipe() {
-        Iterable<MachineRecipe> availableRecipes = RecipeRegistry.getRegistry().getRecipesFor(this.foundMachine);
+    private void stopWatchingArea() {
+        if(this.watchingArea) {
+            StructureIndex.getIndex().unwatchArea(this);
+            this.watchingArea = false;
+        }
+    }
+
+    private void recordIdleDormancy() {
+        if(this.idleDormantSince >= 0) {
+            if(this.foundMachine != null) {
+                MachineMetrics.recordIdleTicks(this.foundMachine, getWorld().getTotalWorldTime() - this.idleDormantSince);
+            }
+            this.idleDormantSince = -1L;
+        }
+    }
+
+    //Blocks set without neighbor notifications aren't seen while dormant, so a formed machine checks its whole structure first.
+    private void leaveDormancy() {
+        if(this.dormant && this.structureTracked) {
+            this.structureRevalidationDue = true;
+        }
+        this.dormant = false;
+    }
+
+    public void wakeUp() {
+        leaveDormancy();
+        this.discoveryPending = true;
+    }
+
+    private void onInventoryChanged() {
+        this.blueprintChanged = true;
+        wakeUp();
+    }
+
+    private void searchMatchingRecipe(RecipeLane lane) {
+        long start = ControllerProfiler.start();
+        long metricsStart = MachineMetrics.startSearch();
+        Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Type.RECIPE_SEARCH);
+        int candidates = findMatchingRecipe(lane);
+        ControllerProfiler.stop(this, ControllerProfiler.Phase.RECIPE_SEARCH, start);
+        MachineMetrics.recordSearch(this.foundMachine, metricsStart);
+        ActiveMachineRecipe found = lane.getActiveRecipe();
+        FlightRecorderEvents.commit(event, this, candidates, found == null ? null : found.getRecipe().getRegistryName().toString());
+    }
+
+    //Returns the amount of candidate recipes that were checked or handed off to be checked.
+    private int findMatchingRecipe(RecipeLane lane) {
+        List<MachineRecipe> availableRecipes = Lists.newArrayList(RecipeRegistry.getRegistry().getRecipeCandidates(this.foundMachine, this.foundComponents));
+        if(Config.asyncRecipeSearch && !availableRecipes.isEmpty() && submitRecipeSearch(lane, availableRecipes)) {
+            return availableRecipes.size();
+        }
+        int checked = 0;
         for (MachineRecipe recipe : availableRecipes) {
-            RecipeCraftingContext context = this.foundMachine.createContext(recipe, this.foundComponents, this.foundModifiers.values());
-            if(context.canStartCrafting() == ComponentRequirement.CraftCheck.SUCCESS) {
-                this.activeRecipe = new ActiveMachineRecipe(recipe);
-                context.startCrafting(); //chew up start items
-                return;
+            checked++;
+            RecipeCraftingContext context = getContext(lane, recipe);
+            context.setBatchSize(1);
+            if(context.canStartCrafting(true) == ComponentRequirement.CraftCheck.SUCCESS) {
+                startRecipe(lane, recipe, context, context.findMaxBatchSize(this.foundMachine.getMaxBatchSize()));
+                return checked;
             }
         }
+        lane.setStatus(CraftingStatus.NO_RECIPE);
+        return checked;
     }
 
-    private void checkStructure() {
-        if(ticksExisted % 20 == 0) {
-            if(this.foundMachine != null && this.foundPattern != null && this.patternRotation != null) {
-                if(this.foundMachine.requiresBlueprint() && !this.foundMachine.equals(getBlueprintMachine())) {
-                    this.activeRecipe = null;
-                    this.foundMachine = null;
-                    this.foundPattern = null;
-                    this.patternRotation = null;
-                    craftingStatus = CraftingStatus.MISSING_STRUCTURE;
-                    markForUpdate();
-                } else if(!foundPattern.matches(getWorld(), getPos(), true, foundMachine.getModifiersAsMatchingReplacements())) {
-                    this.activeRecipe = null;
-                    this.foundMachine = null;
-                    this.foundPattern = null;
-                    this.patternRotation = null;
-                    craftingStatus = CraftingStatus.MISSING_STRUCTURE;
-                    markForUpdate();
+    private boolean submitRecipeSearch(RecipeLane lane, List<MachineRecipe> availableRecipes) {
+        RecipeSearchTask task = RecipeSearchTask.capture(this.foundMachine, availableRecipes, this.foundComponents, this.foundModifiers.values());
+        if(task == null) {
+            return false;
+        }
+        Future<RecipeSearchTask.Result> search = RecipeSearchExecutor.getExecutor().submit(task);
+        if(search == null) {
+            return false;
+        }
+        lane.setPendingSearch(search);
+        return true;
+    }
+
+    private void collectSearchResult(RecipeLane lane) {
+        Future<RecipeSearchTask.Result> search = lane.getPendingSearch();
+        if(search == null || !search.isDone()) {
+            return;
+        }
+        lane.setPendingSearch(null);
+        RecipeSearchTask.Result result;
+        try {
+            result = search.get();
+        } catch (InterruptedException | ExecutionException exc) {
+            ModularMachinery.log.warn("Recipe search for machine at " + getPos() + " failed! Searching on the server thread instead.", exc);
+            findMatchingRecipe(lane);
+            return;
+        }
+        MachineRecipe recipe = result.getRecipe();
+        if(recipe == null) {
+            lane.setStatus(CraftingStatus.NO_RECIPE);
+            return;
+        }
+        //The match was found on a snapshot, so make sure it still holds before anything is consumed.
+        RecipeCraftingContext context = getContext(lane, recipe);
+        context.setBatchSize(1);
+        if(context.canStartCrafting() != ComponentRequirement.CraftCheck.SUCCESS) {
+            lane.setStatus(CraftingStatus.NO_RECIPE);
+            this.recipeSearchPending = true;
+            return;
+        }
+        int batchSize = result.getBatchSize();
+        context.setBatchSize(batchSize);
+        if(batchSize > 1 && context.canStartCrafting() != ComponentRequirement.CraftCheck.SUCCESS) {
+            batchSize = context.findMaxBatchSize(batchSize);
+        }
+        startRecipe(lane, recipe, context, batchSize);
+    }
+
+    private void startRecipe(RecipeLane lane, MachineRecipe recipe, RecipeCraftingContext context, int batchSize) {
+        ActiveMachineRecipe activeRecipe = new ActiveMachineRecipe(recipe);
+        activeRecipe.setBatchSize(batchSize);
+        context.setBatchSize(batchSize);
+        lane.setActiveRecipe(activeRecipe);
+        lane.setStatus(CraftingStatus.CRAFTING);
+        context.startCrafting(); //chew up start items
+    }
+
+    public void onComponentContentChanged(boolean energyChange) {
+        leaveDormancy();
+        if(energyChange) {
+            this.energyChangePending = true;
+        } else {
+            this.recipeSearchPending = true;
+        }
+    }
+
+    private void unlinkComponentTiles() {
+        for (TileColorableMachineComponent tile : this.linkedComponentTiles) {
+            tile.removeOwningController(this);
+        }
+        this.linkedComponentTiles.clear();
+    }
+
+    private RecipeCraftingContext getContext(RecipeLane lane, MachineRecipe recipe) {
+        return lane.getContext(this.foundMachine, recipe, this.foundComponents, this.foundModifiers.values());
+    }
+
+    //Returns the amount of machine structures that were matched against, changed positions alone don't count.
+    private int checkStructure() {
+        int matched = 0;
+        if(this.foundMachine != null && this.foundPattern != null && this.patternRotation != null) {
+            if((this.periodicWorkDue || this.blueprintChanged) && this.foundMachine.requiresBlueprint() && !this.foundMachine.equals(getBlueprintMachine())) {
+                resetMachine();
+            } else if(!this.structureTracked) {
+                matched++;
+                if(foundMachine.getCompiledPattern(patternRotation).matches(getWorld(), getPos(), true)) {
+                    trackStructure();
+                } else {
+                    resetMachine();
+                }
+            } else if(this.structureRevalidationDue) {
+                //Blocks set without neighbor notifications never reach the StructureIndex, so check everything once in a while.
+                matched++;
+                if(!foundMachine.getCompiledPattern(patternRotation).matches(getWorld(), getPos(), true)) {
+                    resetMachine();
+                } else if(!this.changedStructurePositions.isEmpty()) {
+                    this.changedStructurePositions.clear();
+                    this.componentsChanged = true;
+                }
+            } else if(!this.changedStructurePositions.isEmpty() || (this.periodicWorkDue && !this.nbtConstrainedOffsets.isEmpty())) {
+                if(!matchesChangedPositions()) {
+                    resetMachine();
+                } else if(!this.changedStructurePositions.isEmpty()) {
+                    this.changedStructurePositions.clear();
+                    this.componentsChanged = true;
                 }
             }
-            if(this.foundMachine == null || this.foundPattern == null || this.patternRotation == null) {
-                this.foundMachine = null;
-                this.foundPattern = null;
-                this.patternRotation = null;
+        }
+        this.blueprintChanged = false;
+        if(this.periodicWorkDue && (this.foundMachine == null || this.foundPattern == null || this.patternRotation == null)) {
+            this.foundMachine = null;
+            this.foundPattern = null;
+            this.patternRotation = null;
+            this.discoveryPending = false;
+
+            DynamicMachine blueprint = getBlueprintMachine();
+            if(blueprint != null) {
+                matched++;
+                EnumFacing rotation = matchesRotation(blueprint);
+                if(rotation != null) {
+                    this.foundMachine = blueprint;
+                    this.foundPattern = blueprint.getPattern(rotation);
+                    this.patternRotation = rotation;
+                    this.world.setBlockState(pos, BlocksMM.blockController.getDefaultState().withProperty(BlockController.FACING, rotation));
+                    trackStructure();
+                    markForUpdate();
+                    MachineMetrics.recordFormation(this.foundMachine);
 
-                DynamicMachine blueprint = getBlueprintMachine();
-                if(blueprint != null) {
-                    Tuple<EnumFacing, BlockArray> res = matchesRotation(blueprint.getPattern(), blueprint);
-                    if(res != null) {
-                        this.foundMachine = blueprint;
-                        this.foundPattern = res.getSecond();
-                        this.patternRotation = res.getFirst();
-                        this.world.setBlockState(pos, BlocksMM.blockController.getDefaultState().withProperty(BlockController.FACING, res.getFirst()));
+                    if(this.foundMachine.getMachineColor() != Config.machineColor) {
+                        distributeCasingColor();
+                    }
+                }
+            } else {
+                for (DynamicMachine machine : MachineRegistry.getRegistry().getDiscoveryIndex().getCandidates(getWorld(), getPos())) {
+                    matched++;
+                    EnumFacing rotation = matchesRotation(machine);
+                    if (rotation != null) {
+                        this.foundMachine = machine;
+                        this.foundPattern = machine.getPattern(rotation);
+                        this.patternRotation = rotation;
+                        this.world.setBlockState(pos, BlocksMM.blockController.getDefaultState().withProperty(BlockController.FACING, rotation));
+                        trackStructure();
                         markForUpdate();
+                        MachineMetrics.recordFormation(this.foundMachine);
 
                         if(this.foundMachine.getMachineColor() != Config.machineColor) {
                             distributeCasingColor();
                         }
-                    }
-                } else {
-                    for (DynamicMachine machine : MachineRegistry.getRegistry()) {
-                        if (machine.requiresBlueprint()) continue;
-                        Tuple<EnumFacing, BlockArray> res = matchesRotation(machine.getPattern(), machine);
-                        if (res != null) {
-                            this.foundMachine = machine;
-                            this.foundPattern = res.getSecond();
-                            this.patternRotation = res.getFirst();
-                            this.world.setBlockState(pos, BlocksMM.blockController.getDefaultState().withProperty(BlockController.FACING, res.getFirst()));
-                            markForUpdate();
-
-                            if(this.foundMachine.getMachineColor() != Config.machineColor) {
-                                distributeCasingColor();
-                            }
-                            break;
-                        }
+                        break;
                     }
                 }
             }
         }
+        return matched;
+    }
+
+    private boolean matchesChangedPositions() {
+        Map<BlockPos, BlockArray.BlockInformation> modifierReplacements = foundMachine.getModifiersAsMatchingReplacements(patternRotation);
+        for (BlockPos changed : this.changedStructurePositions) {
+            if(!foundPattern.matchesAt(getWorld(), getPos(), changed.subtract(getPos()), true, modifierReplacements)) {
+                return false;
+            }
+        }
+        for (BlockPos offset : this.nbtConstrainedOffsets) {
+            if(!foundPattern.matchesAt(getWorld(), getPos(), offset, true, modifierReplacements)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void trackStructure() {
+        Set<BlockPos> positions = new HashSet<>();
+        this.nbtConstrainedOffsets.clear();
+        for (Map.Entry<BlockPos, BlockArray.BlockInformation> entry : this.foundPattern.getPattern().entrySet()) {
+            positions.add(getPos().add(entry.getKey()));
+            if(entry.getValue().matchingTag != null) {
+                this.nbtConstrainedOffsets.add(entry.getKey());
+            }
+        }
+        for (BlockPos modifierOffset : this.foundMachine.getModifiers(this.patternRotation).keySet()) {
+            positions.add(getPos().add(modifierOffset));
+        }
+        StructureIndex.getIndex().track(this, positions);
+        updateLaneCount(this.foundMachine.getParallelLanes());
+        this.structureTracked = true;
+        this.changedStructurePositions.clear();
+        this.componentsChanged = true;
+    }
+
+    private void untrackStructure() {
+        unlinkComponentTiles();
+        if(this.structureTracked) {
+            StructureIndex.getIndex().untrack(this);
+            this.structureTracked = false;
+        }
+        this.changedStructurePositions.clear();
+        this.nbtConstrainedOffsets.clear();
+    }
+
+    private void resetMachine() {
+        untrackStructure();
+        for (RecipeLane lane : this.lanes) {
+            lane.reset();
+        }
+        this.foundMachine = null;
+        this.foundPattern = null;
+        this.patternRotation = null;
+        craftingStatus = CraftingStatus.MISSING_STRUCTURE;
+        markForUpdate();
+    }
+
+    public void onComponentTileRemoved(TileColorableMachineComponent tile) {
+        this.linkedComponentTiles.remove(tile);
+        this.componentsChanged = true;
+        leaveDormancy();
+    }
+
+    public void onStructureBlockChanged(BlockPos changed) {
+        this.changedStructurePositions.add(changed);
+        leaveDormancy();
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        untrackStructure();
+        stopWatchingArea();
+        cancelPendingSearches();
+        if(!getWorld().isRemote) {
+            recordIdleDormancy();
+            MachineScheduler.getScheduler(getWorld()).unschedule(this);
+        }
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        untrackStructure();
+        stopWatchingArea();
+        cancelPendingSearches();
+        if(!getWorld().isRemote) {
+            recordIdleDormancy();
+            MachineScheduler.getScheduler(getWorld()).unschedule(this);
+        }
     }
 
     private void distributeCasingColor() {
@@ -235,15 +729,17 @@ public class TileMachineController extends TileEntityRestrictedTick {
     }
 
     @Nullable
-    public Tuple<EnumFacing, BlockArray> matchesRotation(BlockArray pattern, DynamicMachine machine) {
-        EnumFacing face = EnumFacing.NORTH;
-        do {
-            if(pattern.matches(getWorld(), getPos(), false, machine.getModifiersAsMatchingReplacements())) {
-                return new Tuple<>(face, pattern);
-            }
-            face = face.rotateYCCW();
-            pattern = pattern.rotateYCCW();
-        } while (face != EnumFacing.NORTH);
+    public EnumFacing matchesRotation(DynamicMachine machine) {
+        EnumFacing current = EnumFacing.NORTH;
+        IBlockState state = getWorld().getBlockState(getPos());
+        if(state.getBlock() instanceof BlockController) {
+            current = state.getValue(BlockController.FACING);
+        }
+        for (EnumFacing rotation : machine.getMatchingRotations(current)) {
+            if(machine.getCompiledPattern(rotation).matches(getWorld(), getPos(), false)) {
+                return rotation;
+            }
+        }
         return null;
     }
 
@@ -256,21 +752,32 @@ public class TileMachineController extends TileEntityRestrictedTick {
             this.patternRotation = null;
             return;
         }
-        if(ticksExisted % 20 == 0) {
+        if(this.componentsChanged) {
+            this.componentsChanged = false;
+            this.recipeSearchPending = true;
+            resetLaneContexts();
+            unlinkComponentTiles();
             this.foundComponents = Lists.newArrayList();
-            for (BlockPos potentialPosition : this.foundPattern.getPattern().keySet()) {
+            for (BlockPos potentialPosition : this.foundMachine.getComponentOffsets(this.patternRotation)) {
                 BlockPos realPos = getPos().add(potentialPosition);
+                if(!getWorld().isBlockLoaded(realPos)) {
+                    continue; //Picked up again through the structure index once the chunk loads.
+                }
                 TileEntity te = getWorld().getTileEntity(realPos);
                 if(te != null && te instanceof MachineComponentTile) {
                     MachineComponent component = ((MachineComponentTile) te).provideComponent();
                     if(component != null) {
                         this.foundComponents.add(component);
+                        if(te instanceof TileColorableMachineComponent) {
+                            ((TileColorableMachineComponent) te).addOwningController(this);
+                            this.linkedComponentTiles.add((TileColorableMachineComponent) te);
+                        }
                     }
                 }
             }
 
             this.foundModifiers = new HashMap<>();
-            for (Map.Entry<BlockPos, ModifierReplacement> offsetModifiers : this.foundMachine.getModifiers().entrySet()) {
+            for (Map.Entry<BlockPos, ModifierReplacement> offsetModifiers : this.foundMachine.getModifiers(this.patternRotation).entrySet()) {
                 BlockPos realAt = this.getPos().add(offsetModifiers.getKey());
                 if(offsetModifiers.getValue().getBlockInformation().matches(this.world, realAt, false)) {
                     this.foundModifiers.put(offsetModifiers.getKey(), offsetModifiers.getValue());
@@ -280,10 +787,23 @@ public class TileMachineController extends TileEntityRestrictedTick {
     }
 
     public float getCurrentActiveRecipeProgress(float partial) {
-        if(activeRecipe == null) return 0F;
-        float tick = activeRecipe.getTick() + partial;
-        float maxTick = activeRecipe.getRecipe().getRecipeTotalTickTime();
-        return MathHelper.clamp(tick / maxTick, 0F, 1F);
+        float progress = 0F;
+        for (int i = 0; i < this.lanes.length; i++) {
+            progress = Math.max(progress, getLaneProgress(i, partial));
+        }
+        return progress;
+    }
+
+    public int getLaneCount() {
+        return this.lanes.length;
+    }
+
+    public boolean isLaneActive(int lane) {
+        return this.lanes[lane].getActiveRecipe() != null;
+    }
+
+    public float getLaneProgress(int lane, float partial) {
+        return this.lanes[lane].getProgress(getWorld().getTotalWorldTime(), partial);
     }
 
     @Override
@@ -328,7 +848,11 @@ public class TileMachineController extends TileEntityRestrictedTick {
         super.readCustomNBT(compound);
         this.inventory = IOInventory.deserialize(this, compound.getCompoundTag("items"));
         this.inventory.setStackLimit(1, BLUEPRINT_SLOT);
+        this.inventory.setListener(this::onInventoryChanged);
+        this.dormant = false;
+        this.discoveryPending = true;
         this.craftingStatus = CraftingStatus.values()[compound.getInteger("status")];
+        untrackStructure();
 
         if(compound.hasKey("machine") && compound.hasKey("rotation")) {
             ResourceLocation rl = new ResourceLocation(compound.getString("machine"));
@@ -340,14 +864,8 @@ public class TileMachineController extends TileEntityRestrictedTick {
                 this.patternRotation = null;
             } else {
                 EnumFacing rot = EnumFacing.getHorizontal(compound.getInteger("rotation"));
-                EnumFacing offset = EnumFacing.NORTH;
-                BlockArray pattern = machine.getPattern();
-                while (offset != rot) {
-                    pattern = pattern.rotateYCCW();
-                    offset = offset.rotateY();
-                }
                 this.patternRotation = rot;
-                this.foundPattern = pattern;
+                this.foundPattern = machine.getPattern(rot);
                 this.foundMachine = machine;
 
                 if(compound.hasKey("modifierOffsets")) {
@@ -355,7 +873,7 @@ public class TileMachineController extends TileEntityRestrictedTick {
                     for (int i = 0; i < list.tagCount(); i++) {
                         NBTTagCompound posTag = list.getCompoundTagAt(i);
                         BlockPos modOffset = NBTUtil.getPosFromTag(posTag);
-                        ModifierReplacement mod = this.foundMachine.getModifiers().get(modOffset);
+                        ModifierReplacement mod = this.foundMachine.getModifiers(rot).get(modOffset);
                         if(mod != null) {
                             this.foundModifiers.put(modOffset, mod);
                         }
@@ -367,17 +885,30 @@ public class TileMachineController extends TileEntityRestrictedTick {
             this.foundPattern = null;
             this.patternRotation = null;
         }
-        if(compound.hasKey("activeRecipe")) {
-            NBTTagCompound tag = compound.getCompoundTag("activeRecipe");
-            ActiveMachineRecipe recipe = new ActiveMachineRecipe(tag);
-            if(recipe.getRecipe() == null) {
-                ModularMachinery.log.info("Couldn't find recipe named " + tag.getString("recipeName") + " for controller at " + getPos().toString());
-                this.activeRecipe = null;
-            } else {
-                this.activeRecipe = recipe;
-            }
+        long worldTime = getWorld() != null ? getWorld().getTotalWorldTime() : 0;
+        NBTTagList laneList;
+        if(compound.hasKey("lanes")) {
+            laneList = compound.getTagList("lanes", Constants.NBT.TAG_COMPOUND);
         } else {
-            this.activeRecipe = null;
+            //Controllers from before lanes existed only had a single active recipe.
+            laneList = new NBTTagList();
+            NBTTagCompound laneTag = new NBTTagCompound();
+            laneTag.setInteger("status", this.craftingStatus == CraftingStatus.CRAFTING ? CraftingStatus.CRAFTING.ordinal() : CraftingStatus.NO_RECIPE.ordinal());
+            if(compound.hasKey("activeRecipe")) {
+                laneTag.setTag("activeRecipe", compound.getCompoundTag("activeRecipe"));
+            }
+            laneList.appendTag(laneTag);
+        }
+        this.lanes = new RecipeLane[Math.max(1, laneList.tagCount())];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new RecipeLane();
+            if(i < laneList.tagCount()) {
+                NBTTagCompound laneTag = laneList.getCompoundTagAt(i);
+                this.lanes[i].deserialize(laneTag, worldTime);
+                if(laneTag.hasKey("activeRecipe") && this.lanes[i].getActiveRecipe() == null) {
+                    ModularMachinery.log.info("Couldn't find recipe named " + laneTag.getCompoundTag("activeRecipe").getString("recipeName") + " for controller at " + getPos().toString());
+                }
+            }
         }
     }
 
@@ -397,8 +928,39 @@ public class TileMachineController extends TileEntityRestrictedTick {
             }
             compound.setTag("modifierOffsets", listModifierOffsets);
         }
-        if(this.activeRecipe != null) {
-            compound.setTag("activeRecipe", this.activeRecipe.serialize());
+        NBTTagList laneList = new NBTTagList();
+        for (RecipeLane lane : this.lanes) {
+            laneList.appendTag(lane.serialize());
+        }
+        compound.setTag("lanes", laneList);
+    }
+
+    @Override
+    public void writeSyncFields(int fields, ByteBuf buf) {
+        super.writeSyncFields(fields, buf);
+        if((fields & SYNC_STATUS) != 0) {
+            buf.writeByte(this.craftingStatus.ordinal());
+        }
+        if((fields & SYNC_PROGRESS) != 0) {
+            buf.writeByte(this.lanes.length);
+            for (RecipeLane lane : this.lanes) {
+                lane.writeProgress(buf);
+            }
+        }
+    }
+
+    @Override
+    public void readSyncFields(int fields, ByteBuf buf) {
+        super.readSyncFields(fields, buf);
+        if((fields & SYNC_STATUS) != 0) {
+            this.craftingStatus = CraftingStatus.values()[MathHelper.clamp(buf.readByte(), 0, CraftingStatus.values().length - 1)];
+        }
+        if((fields & SYNC_PROGRESS) != 0) {
+            int count = buf.readUnsignedByte();
+            for (int i = 0; i < count; i++) {
+                RecipeLane lane = i < this.lanes.length ? this.lanes[i] : new RecipeLane();
+                lane.readProgress(buf);
+            }
         }
     }
 
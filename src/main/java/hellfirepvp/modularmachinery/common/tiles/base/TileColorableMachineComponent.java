@@ -8,9 +8,13 @@
 
 package hellfirepvp.modularmachinery.common.tiles.base;
 
+import com.google.common.collect.Lists;
 import hellfirepvp.modularmachinery.common.data.Config;
+import hellfirepvp.modularmachinery.common.tiles.TileMachineController;
 import net.minecraft.nbt.NBTTagCompound;
 
+import java.util.List;
+
 /**
  * This class is part of the Modular Machinery Mod
  * The complete source code for this mod can be found on github.
@@ -22,6 +26,43 @@ public class TileColorableMachineComponent extends TileEntitySynchronized {
 
     public int definedColor = Config.machineColor;
 
+    private final List<TileMachineController> owningControllers = Lists.newArrayListWithCapacity(1);
+
+    public void addOwningController(TileMachineController controller) {
+        if(!this.owningControllers.contains(controller)) {
+            this.owningControllers.add(controller);
+        }
+    }
+
+    public void removeOwningController(TileMachineController controller) {
+        this.owningControllers.remove(controller);
+    }
+
+    protected void notifyOwningControllers(boolean energyChange) {
+        for (int i = 0; i < this.owningControllers.size(); i++) {
+            this.owningControllers.get(i).onComponentContentChanged(energyChange);
+        }
+    }
+
+    private void notifyComponentRemoved() {
+        for (int i = 0; i < this.owningControllers.size(); i++) {
+            this.owningControllers.get(i).onComponentTileRemoved(this);
+        }
+        this.owningControllers.clear();
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        notifyComponentRemoved();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        notifyComponentRemoved();
+    }
+
     @Override
     public void readCustomNBT(NBTTagCompound compound) {
         super.readCustomNBT(compound);
@@ -12,6 +12,7 @@ import hellfirepvp.modularmachinery.common.block.prop.EnergyHatchSize;
 import hellfirepvp.modularmachinery.common.tiles.TileEnergyInputHatch;
 import hellfirepvp.modularmachinery.common.tiles.TileEnergyOutputHatch;
 import hellfirepvp.modularmachinery.common.util.IEnergyHandler;
+import io.netty.buffer.ByteBuf;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ITickable;
@@ -33,7 +34,10 @@ import javax.annotation.Nullable;
 @Optional.Interface(iface = "cofh.redstoneflux.api.IEnergyStorage", modid = "redstoneflux")
 public abstract class TileEnergyHatch extends TileColorableMachineComponent implements ITickable, IEnergyStorage, IEnergyHandler, MachineComponentTile, cofh.redstoneflux.api.IEnergyStorage {
 
+    protected static final int SYNC_ENERGY = 1;
+
     protected int energy = 0;
+    private int lastSyncedEnergy = -1;
     protected EnergyHatchSize size;
 
     public TileEnergyHatch() {}
@@ -49,9 +53,10 @@ public abstract class TileEnergyHatch extends TileColorableMachineComponent impl
         }
         int insertable = this.energy + maxReceive > this.size.maxEnergy ? this.size.maxEnergy - this.energy : maxReceive;
         insertable = Math.min(insertable, size.transferLimit);
-        if(!simulate) {
+        if(!simulate && insertable > 0) {
+            int prevEnergy = this.energy;
             this.energy = MathHelper.clamp(this.energy + insertable, 0, this.size.maxEnergy);
-            markForUpdate();
+            onEnergyChanged(prevEnergy);
         }
         return insertable;
     }
@@ -63,13 +68,36 @@ public abstract class TileEnergyHatch extends TileColorableMachineComponent impl
         }
         int extractable = this.energy - maxExtract < 0 ? this.energy : maxExtract;
         extractable = Math.min(extractable, size.transferLimit);
-        if(!simulate) {
+        if(!simulate && extractable > 0) {
+            int prevEnergy = this.energy;
             this.energy = MathHelper.clamp(this.energy - extractable, 0, this.size.maxEnergy);
-            markForUpdate();
+            onEnergyChanged(prevEnergy);
         }
         return extractable;
     }
 
+    @Override
+    public void markForUpdate() {
+        super.markForUpdate();
+        notifyOwningControllers(true);
+    }
+
+    protected void onEnergyChanged(int prevEnergy) {
+        if(this.energy == prevEnergy) {
+            return;
+        }
+        //Watching clients already have this value if it went back to what was sent last.
+        if(this.energy != this.lastSyncedEnergy) {
+            markFieldsForSync(SYNC_ENERGY);
+        } else {
+            markDirty();
+        }
+        //Only more energy to draw from or more room to output into can let a waiting recipe start.
+        if(canReceive() ? this.energy > prevEnergy : this.energy < prevEnergy) {
+            notifyOwningControllers(true);
+        }
+    }
+
     @Override
     public int getEnergyStored() {
         return this.energy;
@@ -120,6 +148,25 @@ public abstract class TileEnergyHatch extends TileColorableMachineComponent impl
         compound.setInteger("hatchSize", this.size.ordinal());
     }
 
+    @Override
+    public void writeSyncFields(int fields, ByteBuf buf) {
+        super.writeSyncFields(fields, buf);
+
+        if((fields & SYNC_ENERGY) != 0) {
+            buf.writeInt(this.energy);
+            this.lastSyncedEnergy = this.energy;
+        }
+    }
+
+    @Override
+    public void readSyncFields(int fields, ByteBuf buf) {
+        super.readSyncFields(fields, buf);
+
+        if((fields & SYNC_ENERGY) != 0) {
+            this.energy = buf.readInt();
+        }
+    }
+
     //MM stuff
 
     @Override
@@ -129,8 +176,9 @@ public abstract class TileEnergyHatch extends TileColorableMachineComponent impl
 
     @Override
     public void setCurrentEnergy(int energy) {
+        int prevEnergy = this.energy;
         this.energy = MathHelper.clamp(energy, 0, this.size.maxEnergy);
-        markForUpdate();
+        onEnergyChanged(prevEnergy);
     }
 
     @Override
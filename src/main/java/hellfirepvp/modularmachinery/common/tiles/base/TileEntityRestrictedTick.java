@@ -34,4 +34,15 @@ public abstract class TileEntityRestrictedTick extends TileColorableMachineCompo
     }
 
     public abstract void doRestrictedTick();
+
+    //Tiles placed or loaded together would otherwise do their periodic work on the very same tick.
+    protected boolean isPeriodicTick(int interval) {
+        return Math.floorMod(getWorld().getTotalWorldTime() + getTickPhase(), interval) == 0;
+    }
+
+    private int getTickPhase() {
+        long hash = getPos().toLong() * 0x9E3779B97F4A7C15L;
+        return (int) ((hash ^ (hash >>> 32)) & Integer.MAX_VALUE);
+    }
+
 }
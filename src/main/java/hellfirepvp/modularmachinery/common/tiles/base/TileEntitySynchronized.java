@@ -8,6 +8,9 @@
 
 package hellfirepvp.modularmachinery.common.tiles.base;
 
+import hellfirepvp.modularmachinery.common.network.TileFieldSyncHandler;
+import hellfirepvp.modularmachinery.common.util.nbt.NBTMatchCache;
+import io.netty.buffer.ByteBuf;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.NetworkManager;
@@ -27,6 +30,8 @@ public class TileEntitySynchronized extends TileEntity {
 
     protected static final Random rand = new Random();
 
+    private int dirtySyncFields = 0;
+
     public final void readFromNBT(NBTTagCompound compound) {
         super.readFromNBT(compound);
         readCustomNBT(compound);
@@ -69,10 +74,41 @@ public class TileEntitySynchronized extends TileEntity {
         readNetNBT(packet.getNbtCompound());
     }
 
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        if(world != null && !world.isRemote) {
+            NBTMatchCache.getCache().invalidate(this);
+        }
+    }
+
     public void markForUpdate() {
         IBlockState thisState = world.getBlockState(pos);
         world.notifyBlockUpdate(pos, thisState, thisState, 3);
         markDirty();
     }
 
+    //Sends only the given fields to watching clients at the end of the tick instead of the whole tile.
+    //Field bits are defined and interpreted by the tile itself through write-/readSyncFields.
+    public void markFieldsForSync(int fields) {
+        if(world == null || world.isRemote) {
+            return;
+        }
+        if(this.dirtySyncFields == 0) {
+            TileFieldSyncHandler.getHandler().queue(this);
+        }
+        this.dirtySyncFields |= fields;
+        markDirty();
+    }
+
+    public final int pollSyncFields() {
+        int fields = this.dirtySyncFields;
+        this.dirtySyncFields = 0;
+        return fields;
+    }
+
+    public void writeSyncFields(int fields, ByteBuf buf) {}
+
+    public void readSyncFields(int fields, ByteBuf buf) {}
+
 }
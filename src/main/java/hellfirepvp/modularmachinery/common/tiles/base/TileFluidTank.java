@@ -13,6 +13,7 @@ import hellfirepvp.modularmachinery.common.block.prop.FluidHatchSize;
 import hellfirepvp.modularmachinery.common.machine.MachineComponent;
 import hellfirepvp.modularmachinery.common.util.HybridGasTank;
 import hellfirepvp.modularmachinery.common.util.HybridTank;
+import io.netty.buffer.ByteBuf;
 import mekanism.api.gas.Gas;
 import mekanism.api.gas.GasStack;
 import mekanism.api.gas.IGasHandler;
@@ -25,6 +26,7 @@ import net.minecraftforge.fluids.FluidTank;
 import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.fml.common.Optional;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 
 import javax.annotation.Nullable;
 
@@ -41,9 +43,12 @@ import javax.annotation.Nullable;
 })
 public abstract class TileFluidTank extends TileColorableMachineComponent implements MachineComponentTile, IGasHandler, ITubeConnection {
 
+    protected static final int SYNC_TANK = 1;
+
     private HybridTank tank;
     private MachineComponent.IOType ioType;
     private FluidHatchSize hatchSize;
+    private MachineComponent component = null;
 
     public TileFluidTank() {}
 
@@ -57,6 +62,17 @@ public abstract class TileFluidTank extends TileColorableMachineComponent implem
         return tank;
     }
 
+    @Override
+    public void markForUpdate() {
+        super.markForUpdate();
+        notifyOwningControllers(false);
+    }
+
+    public void onTankContentsChanged() {
+        markFieldsForSync(SYNC_TANK);
+        notifyOwningControllers(false);
+    }
+
     @Override
     public boolean hasCapability(Capability<?> capability, @Nullable EnumFacing facing) {
         if(capability == CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY) {
@@ -125,15 +141,47 @@ public abstract class TileFluidTank extends TileColorableMachineComponent implem
         compound.setTag("tank", tankTag);
     }
 
+    @Override
+    public void writeSyncFields(int fields, ByteBuf buf) {
+        super.writeSyncFields(fields, buf);
+
+        if((fields & SYNC_TANK) != 0) {
+            NBTTagCompound tankTag = new NBTTagCompound();
+            this.tank.writeToNBT(tankTag);
+            if(ModularMachinery.isMekanismLoaded) {
+                this.writeMekGasData(tankTag);
+            }
+            ByteBufUtils.writeTag(buf, tankTag);
+        }
+    }
+
+    @Override
+    public void readSyncFields(int fields, ByteBuf buf) {
+        super.readSyncFields(fields, buf);
+
+        if((fields & SYNC_TANK) != 0) {
+            NBTTagCompound tankTag = ByteBufUtils.readTag(buf);
+            if(tankTag != null && this.tank != null) {
+                this.tank.readFromNBT(tankTag);
+                if(ModularMachinery.isMekanismLoaded) {
+                    this.readMekGasData(tankTag);
+                }
+            }
+        }
+    }
+
     @Nullable
     @Override
     public MachineComponent provideComponent() {
-        return new MachineComponent.FluidHatch(ioType) {
-            @Override
-            public HybridTank getContainerProvider() {
-                return TileFluidTank.this.tank;
-            }
-        };
+        if(this.component == null) {
+            this.component = new MachineComponent.FluidHatch(ioType) {
+                @Override
+                public HybridTank getContainerProvider() {
+                    return TileFluidTank.this.tank;
+                }
+            };
+        }
+        return this.component;
     }
 
     //Mek things
@@ -39,6 +39,12 @@ public abstract class TileInventory extends TileColorableMachineComponent {
         return inventory;
     }
 
+    @Override
+    public void markForUpdate() {
+        super.markForUpdate();
+        notifyOwningControllers(false);
+    }
+
     @Override
     public void readCustomNBT(NBTTagCompound compound) {
         super.readCustomNBT(compound);
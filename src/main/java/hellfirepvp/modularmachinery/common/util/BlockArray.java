@@ -14,7 +14,7 @@ import com.google.gson.JsonParseException;
 import com.google.gson.JsonPrimitive;
 import hellfirepvp.modularmachinery.client.ClientScheduler;
 import hellfirepvp.modularmachinery.common.util.nbt.NBTJsonSerializer;
-import hellfirepvp.modularmachinery.common.util.nbt.NBTMatchingHelper;
+import hellfirepvp.modularmachinery.common.util.nbt.NBTMatchCache;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockLiquid;
 import net.minecraft.block.material.Material;
@@ -54,13 +54,13 @@ import java.util.*;
 public class BlockArray {
 
     private static final ResourceLocation ic2TileBlock = new ResourceLocation("ic2", "te");
-    protected Map<BlockPos, BlockInformation> pattern = new HashMap<>();
+    protected Map<BlockPos, BlockInformation> pattern = new PackedPatternMap();
     private Vec3i min = new Vec3i(0, 0, 0), max = new Vec3i(0, 0, 0), size = new Vec3i(0, 0, 0);
 
     public BlockArray() {}
 
     public BlockArray(BlockArray other) {
-        this.pattern = new HashMap<>(other.pattern);
+        this.pattern = new PackedPatternMap(other.pattern);
         this.min = new Vec3i(other.min.getX(), other.min.getY(), other.min.getZ());
         this.max = new Vec3i(other.max.getX(), other.max.getY(), other.max.getZ());
         this.size = new Vec3i(other.size.getX(), other.size.getY(), other.size.getZ());
@@ -130,6 +130,17 @@ public class BlockArray {
         return pattern;
     }
 
+    //Offsets where the pattern allows blocks with a tile entity and thus possibly a machine component.
+    public List<BlockPos> getTileEntityOffsets() {
+        List<BlockPos> offsets = new ArrayList<>();
+        for (Map.Entry<BlockPos, BlockInformation> entry : pattern.entrySet()) {
+            if(entry.getValue().canHoldTileEntity()) {
+                offsets.add(entry.getKey());
+            }
+        }
+        return offsets;
+    }
+
     public Map<BlockPos, BlockInformation> getPatternSlice(int slice) {
         Map<BlockPos, BlockInformation> copy = new HashMap<>();
         for (BlockPos pos : pattern.keySet()) {
@@ -170,21 +181,42 @@ public class BlockArray {
     }
 
     public boolean matches(World world, BlockPos center, boolean oldState, @Nullable Map<BlockPos, BlockInformation> modifierReplacementPattern) {
-        for (Map.Entry<BlockPos, BlockInformation> entry : pattern.entrySet()) {
-            BlockPos at = center.add(entry.getKey());
-            if(!entry.getValue().matches(world, at, oldState)) {
-                if(modifierReplacementPattern != null && modifierReplacementPattern.containsKey(entry.getKey())) {
-                    BlockInformation value = modifierReplacementPattern.get(entry.getKey());
-                    if(value.matches(world, at, oldState)) {
-                        continue;
+        BlockPos.PooledMutableBlockPos at = BlockPos.PooledMutableBlockPos.retain();
+        try {
+            for (Map.Entry<BlockPos, BlockInformation> entry : pattern.entrySet()) {
+                BlockPos offset = entry.getKey();
+                at.setPos(center.getX() + offset.getX(), center.getY() + offset.getY(), center.getZ() + offset.getZ());
+                if(!entry.getValue().matches(world, at, oldState)) {
+                    if(modifierReplacementPattern != null && modifierReplacementPattern.containsKey(offset)) {
+                        BlockInformation value = modifierReplacementPattern.get(offset);
+                        if(value.matches(world, at, oldState)) {
+                            continue;
+                        }
                     }
+                    return false;
                 }
-                return false;
             }
+        } finally {
+            at.release();
         }
         return true;
     }
 
+    public boolean matchesAt(World world, BlockPos center, BlockPos offset, boolean oldState, @Nullable Map<BlockPos, BlockInformation> modifierReplacementPattern) {
+        BlockInformation info = pattern.get(offset);
+        if(info == null) {
+            return true;
+        }
+        BlockPos at = center.add(offset);
+        if(info.matches(world, at, oldState)) {
+            return true;
+        }
+        if(modifierReplacementPattern != null && modifierReplacementPattern.containsKey(offset)) {
+            return modifierReplacementPattern.get(offset).matches(world, at, oldState);
+        }
+        return false;
+    }
+
     public BlockPos getRelativeMismatchPosition(World world, BlockPos center, @Nullable Map<BlockPos, BlockInformation> modifierReplacementPattern) {
         for (Map.Entry<BlockPos, BlockInformation> entry : pattern.entrySet()) {
             BlockPos at = center.add(entry.getKey());
@@ -201,12 +233,27 @@ public class BlockArray {
         return null;
     }
 
+    public boolean isEquivalentTo(BlockArray other) {
+        if(pattern.size() != other.pattern.size()) {
+            return false;
+        }
+        for (Map.Entry<BlockPos, BlockInformation> entry : pattern.entrySet()) {
+            BlockInformation otherInfo = other.pattern.get(entry.getKey());
+            if(otherInfo == null || !entry.getValue().isEquivalentTo(otherInfo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public BlockArray rotateYCCW() {
         BlockArray out = new BlockArray();
+        //Rotate each distinct BlockInformation once, so the rotated pattern shares them just like this one does.
+        Map<BlockInformation, BlockInformation> rotated = new IdentityHashMap<>();
 
-        for (BlockPos pos : pattern.keySet()) {
-            BlockInformation info = pattern.get(pos);
-            out.pattern.put(new BlockPos(pos.getZ(), pos.getY(), -pos.getX()), info.copyRotateYCCW());
+        for (Map.Entry<BlockPos, BlockInformation> entry : pattern.entrySet()) {
+            BlockPos pos = entry.getKey();
+            out.pattern.put(new BlockPos(pos.getZ(), pos.getY(), -pos.getX()), rotated.computeIfAbsent(entry.getValue(), BlockInformation::copyRotateYCCW));
         }
         return out;
     }
@@ -356,7 +403,7 @@ public class BlockArray {
             }
         }
 
-        private BlockInformation copyRotateYCCW() {
+        public BlockInformation copyRotateYCCW() {
             List<IBlockStateDescriptor> newDescriptors = new ArrayList<>(this.matchingStates.size());
             for (IBlockStateDescriptor desc : this.matchingStates) {
                 IBlockStateDescriptor copy = new IBlockStateDescriptor();
@@ -372,6 +419,31 @@ public class BlockArray {
             return bi;
         }
 
+        public boolean isEquivalentTo(BlockInformation other) {
+            return Objects.equals(this.matchingTag, other.matchingTag) && getMatchingStateIds().equals(other.getMatchingStateIds());
+        }
+
+        public boolean canHoldTileEntity() {
+            for (IBlockStateDescriptor descriptor : matchingStates) {
+                for (IBlockState applicable : descriptor.applicable) {
+                    if(applicable.getBlock().hasTileEntity(applicable)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        public Set<Integer> getMatchingStateIds() {
+            Set<Integer> ids = new HashSet<>();
+            for (IBlockStateDescriptor descriptor : matchingStates) {
+                for (IBlockState applicable : descriptor.applicable) {
+                    ids.add(Block.getStateId(applicable));
+                }
+            }
+            return ids;
+        }
+
         public BlockInformation copy() {
             List<IBlockStateDescriptor> descr = new ArrayList<>(this.matchingStates.size());
             for (IBlockStateDescriptor desc : this.matchingStates) {
@@ -394,9 +466,7 @@ public class BlockArray {
             if(matchingTag != null) {
                 TileEntity te = world.getTileEntity(at);
                 if(te != null && matchingTag.getSize() > 0) {
-                    NBTTagCompound cmp = new NBTTagCompound();
-                    te.writeToNBT(cmp);
-                    if(!NBTMatchingHelper.matchNBTCompound(matchingTag, cmp)) {
+                    if(!NBTMatchCache.getCache().matches(world, te, matchingTag)) {
                         return false; //No match at this position.
                     }
                 }
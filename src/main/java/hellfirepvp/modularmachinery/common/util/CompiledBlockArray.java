@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.util;
+
+import net.minecraft.block.Block;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: CompiledBlockArray
+ * Date: 17.10.2026 / 23:20
+ */
+public class CompiledBlockArray {
+
+    private static final int COORD_BITS = 21;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+    private static final int REORDER_INTERVAL = 64;
+
+    private final long[] offsets;
+    //Sorted Block.getStateId values allowed at each position, modifier replacements included. Equal sets are shared.
+    //Null for positions that need to check tile entity NBT; those fall back to the BlockInformation checks.
+    private final int[][] allowedStates;
+    private final int[] nbtIndices;
+    private final BlockArray.BlockInformation[] nbtInformation;
+    private final BlockArray.BlockInformation[] nbtReplacements;
+
+    //All rotations of a machine use the same position indices, so they share one check order.
+    private final Selectivity selectivity;
+
+    private final int minX, maxX, minZ, maxZ;
+
+    private CompiledBlockArray(long[] offsets, int[][] allowedStates, int[] nbtIndices,
+                               BlockArray.BlockInformation[] nbtInformation, BlockArray.BlockInformation[] nbtReplacements,
+                               Selectivity selectivity) {
+        this.offsets = offsets;
+        this.allowedStates = allowedStates;
+        this.nbtIndices = nbtIndices;
+        this.nbtInformation = nbtInformation;
+        this.nbtReplacements = nbtReplacements;
+        this.selectivity = selectivity;
+
+        int minX = 0, maxX = 0, minZ = 0, maxZ = 0;
+        for (long offset : offsets) {
+            minX = Math.min(minX, unpackX(offset));
+            maxX = Math.max(maxX, unpackX(offset));
+            minZ = Math.min(minZ, unpackZ(offset));
+            maxZ = Math.max(maxZ, unpackZ(offset));
+        }
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+    }
+
+    //Expects the patterns and replacements of every horizontal rotation, each one rotated YCCW from the previous, starting at NORTH.
+    public static Map<EnumFacing, CompiledBlockArray> compileRotations(Map<EnumFacing, BlockArray> patterns,
+                                                                      Map<EnumFacing, Map<BlockPos, BlockArray.BlockInformation>> modifierReplacements) {
+        Map<EnumFacing, CompiledBlockArray> compiled = new EnumMap<>(EnumFacing.class);
+        List<BlockPos> layout = new ArrayList<>(patterns.get(EnumFacing.NORTH).getPattern().keySet());
+        Selectivity selectivity = null;
+        EnumFacing face = EnumFacing.NORTH;
+        do {
+            CompiledBlockArray array = compile(patterns.get(face), layout, modifierReplacements.get(face), selectivity);
+            compiled.put(face, array);
+            selectivity = array.selectivity;
+
+            face = face.rotateYCCW();
+            List<BlockPos> rotated = new ArrayList<>(layout.size());
+            for (BlockPos pos : layout) {
+                rotated.add(new BlockPos(pos.getZ(), pos.getY(), -pos.getX()));
+            }
+            layout = rotated;
+        } while (face != EnumFacing.NORTH);
+        return compiled;
+    }
+
+    private static CompiledBlockArray compile(BlockArray pattern, List<BlockPos> layout,
+                                              @Nullable Map<BlockPos, BlockArray.BlockInformation> modifierReplacementPattern,
+                                              @Nullable Selectivity selectivity) {
+        int size = layout.size();
+        long[] offsets = new long[size];
+        int[][] allowedStates = new int[size][];
+        List<Integer> nbtIndices = new ArrayList<>();
+        List<BlockArray.BlockInformation> nbtInformation = new ArrayList<>(), nbtReplacements = new ArrayList<>();
+        Map<Set<Integer>, int[]> sharedSets = new HashMap<>();
+        Map<int[], Integer> setUsages = new IdentityHashMap<>();
+        boolean[] componentPositions = new boolean[size];
+        int[] distances = new int[size];
+
+        for (int index = 0; index < size; index++) {
+            BlockPos offset = layout.get(index);
+            BlockArray.BlockInformation info = pattern.getPattern().get(offset);
+            BlockArray.BlockInformation replacement = modifierReplacementPattern == null ? null : modifierReplacementPattern.get(offset);
+
+            offsets[index] = pack(offset.getX(), offset.getY(), offset.getZ());
+            Set<Integer> states = new HashSet<>(info.getMatchingStateIds());
+            if(replacement != null) {
+                states.addAll(replacement.getMatchingStateIds());
+            }
+            int[] stateSet = sharedSets.computeIfAbsent(states, CompiledBlockArray::toSortedArray);
+            setUsages.merge(stateSet, 1, Integer::sum);
+            componentPositions[index] = info.canHoldTileEntity();
+            distances[index] = Math.abs(offset.getX()) + Math.abs(offset.getY()) + Math.abs(offset.getZ());
+            if(info.matchingTag != null || (replacement != null && replacement.matchingTag != null)) {
+                nbtIndices.add(index);
+                nbtInformation.add(info);
+                nbtReplacements.add(replacement);
+            } else {
+                allowedStates[index] = stateSet;
+            }
+        }
+
+        if(selectivity == null) {
+            //Hatches and other components first, then blocks that are rare in this structure, closest to the controller first.
+            //Generic casings that make up most of the structure end up last.
+            Integer[] sorted = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = i;
+            }
+            //NBT constrained positions count as unique.
+            int[] usages = new int[size];
+            for (int i = 0; i < size; i++) {
+                usages[i] = allowedStates[i] == null ? 1 : setUsages.get(allowedStates[i]);
+            }
+            Arrays.sort(sorted, Comparator.comparing((Integer i) -> !componentPositions[i])
+                    .thenComparingInt(i -> usages[i])
+                    .thenComparingInt(i -> distances[i]));
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = sorted[i];
+            }
+            selectivity = new Selectivity(order);
+        }
+        int[] indices = new int[nbtIndices.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = nbtIndices.get(i);
+        }
+        return new CompiledBlockArray(offsets, allowedStates, indices,
+                nbtInformation.toArray(new BlockArray.BlockInformation[0]), nbtReplacements.toArray(new BlockArray.BlockInformation[0]),
+                selectivity);
+    }
+
+    private static int[] toSortedArray(Set<Integer> states) {
+        int[] array = new int[states.size()];
+        int i = 0;
+        for (Integer state : states) {
+            array[i++] = state;
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    //Same result as BlockArray.matches with the modifier replacements this was compiled with.
+    public boolean matches(World world, BlockPos center, boolean oldState) {
+        int cX = center.getX(), cY = center.getY(), cZ = center.getZ();
+
+        //Every chunk the structure spans is looked up once; positions then read straight from the chunk sections.
+        int minChunkX = (cX + minX) >> 4, minChunkZ = (cZ + minZ) >> 4;
+        int chunksX = ((cX + maxX) >> 4) - minChunkX + 1;
+        int chunksZ = ((cZ + maxZ) >> 4) - minChunkZ + 1;
+        Chunk[] chunks = new Chunk[chunksX * chunksZ];
+        IChunkProvider provider = world.getChunkProvider();
+        for (int xx = 0; xx < chunksX; xx++) {
+            for (int zz = 0; zz < chunksZ; zz++) {
+                chunks[xx + zz * chunksX] = provider.getLoadedChunk(minChunkX + xx, minChunkZ + zz);
+            }
+        }
+
+        int[] order = this.selectivity.order;
+        BlockPos.PooledMutableBlockPos at = BlockPos.PooledMutableBlockPos.retain();
+        try {
+            for (int i : order) {
+                long offset = offsets[i];
+                int x = cX + unpackX(offset), y = cY + unpackY(offset), z = cZ + unpackZ(offset);
+                Chunk chunk = chunks[((x >> 4) - minChunkX) + ((z >> 4) - minChunkZ) * chunksX];
+                if(chunk == null) {
+                    if(!oldState) {
+                        return false;
+                    }
+                    continue;
+                }
+                int[] allowed = allowedStates[i];
+                if(allowed == null) {
+                    at.setPos(x, y, z);
+                    int nbt = Arrays.binarySearch(nbtIndices, i);
+                    BlockArray.BlockInformation replacement = nbtReplacements[nbt];
+                    if(!nbtInformation[nbt].matches(world, at, oldState) && (replacement == null || !replacement.matches(world, at, oldState))) {
+                        selectivity.recordMismatch(i);
+                        return false;
+                    }
+                } else if(Arrays.binarySearch(allowed, getStateId(chunk, x, y, z)) < 0) {
+                    selectivity.recordMismatch(i);
+                    return false;
+                }
+            }
+        } finally {
+            at.release();
+        }
+        return true;
+    }
+
+    //Same as World.getBlockState, positions outside the build height and empty sections are air.
+    private static int getStateId(Chunk chunk, int x, int y, int z) {
+        if(y < 0 || y >= 256) {
+            return Block.getStateId(Blocks.AIR.getDefaultState());
+        }
+        ExtendedBlockStorage storage = chunk.getBlockStorageArray()[y >> 4];
+        if(storage == Chunk.NULL_BLOCK_STORAGE) {
+            return Block.getStateId(Blocks.AIR.getDefaultState());
+        }
+        return Block.getStateId(storage.get(x & 15, y & 15, z & 15));
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) x << (2 * COORD_BITS)) | ((y & COORD_MASK) << COORD_BITS) | (z & COORD_MASK);
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed >> (2 * COORD_BITS));
+    }
+
+    private static int unpackY(long packed) {
+        return (int) (packed << (64 - 2 * COORD_BITS) >> (64 - COORD_BITS));
+    }
+
+    private static int unpackZ(long packed) {
+        return (int) (packed << (64 - COORD_BITS) >> (64 - COORD_BITS));
+    }
+
+    //Positions are checked in this order. It starts out with the most selective positions first
+    //and is re-sorted by observed mismatches every REORDER_INTERVAL mismatches.
+    private static class Selectivity {
+
+        private volatile int[] order;
+        private final int[] staticRank;
+        private final int[] mismatches;
+        private int mismatchesSinceReorder = 0;
+
+        private Selectivity(int[] order) {
+            this.order = order;
+            this.staticRank = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                this.staticRank[order[i]] = i;
+            }
+            this.mismatches = new int[order.length];
+        }
+
+        //Counters may race if this is ever matched from several threads; they're only used as a heuristic.
+        private void recordMismatch(int index) {
+            mismatches[index]++;
+            if(++mismatchesSinceReorder < REORDER_INTERVAL) {
+                return;
+            }
+            mismatchesSinceReorder = 0;
+            Integer[] sorted = new Integer[mismatches.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = i;
+            }
+            int[] counts = mismatches.clone();
+            Arrays.sort(sorted, Comparator.comparingInt((Integer i) -> -counts[i]).thenComparingInt(i -> staticRank[i]));
+            int[] order = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                order[i] = sorted[i];
+                //Halve old counts so the order keeps following what currently breaks.
+                mismatches[i] >>= 1;
+            }
+            this.order = order;
+        }
+
+    }
+
+}
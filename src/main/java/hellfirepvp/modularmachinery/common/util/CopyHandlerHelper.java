@@ -62,4 +62,42 @@ public class CopyHandlerHelper {
         return IOInventory.deserialize(inventory.getOwner(), inventory.writeNBT());
     }
 
+    //Copy that isn't tied to any tile entity and can be handed off to other threads.
+    public static IOInventory snapshotInventory(IOInventory inventory) {
+        IOInventory snapshot = IOInventory.deserialize(null, inventory.writeNBT());
+        snapshot.allowAnySlots = inventory.allowAnySlots;
+        return snapshot;
+    }
+
+    public static IEnergyHandler snapshotEnergy(IEnergyHandler handler) {
+        return new EnergySnapshot(handler.getCurrentEnergy(), handler.getMaxEnergy());
+    }
+
+    private static class EnergySnapshot implements IEnergyHandler {
+
+        private final int maxEnergy;
+        private int energy;
+
+        private EnergySnapshot(int energy, int maxEnergy) {
+            this.energy = energy;
+            this.maxEnergy = maxEnergy;
+        }
+
+        @Override
+        public int getCurrentEnergy() {
+            return energy;
+        }
+
+        @Override
+        public void setCurrentEnergy(int energy) {
+            this.energy = energy;
+        }
+
+        @Override
+        public int getMaxEnergy() {
+            return maxEnergy;
+        }
+
+    }
+
 }
@@ -84,6 +84,13 @@ public class IOInventory implements IItemHandlerModifiable {
         return owner;
     }
 
+    //Detached copies, like the snapshots used for off-thread recipe checks, don't have an owner.
+    private void markOwnerForUpdate() {
+        if(owner != null) {
+            owner.markForUpdate();
+        }
+    }
+
     public IItemHandlerModifiable asGUIAccess() {
         return new GuiAccess(this);
     }
@@ -92,7 +99,7 @@ public class IOInventory implements IItemHandlerModifiable {
     public void setStackInSlot(int slot, @Nonnull ItemStack stack) {
         if(this.inventory.containsKey(slot)) {
             this.inventory.get(slot).itemStack = stack;
-            getOwner().markForUpdate();
+            markOwnerForUpdate();
             if(listener != null) {
                 listener.onChange();
             }
@@ -138,7 +145,7 @@ public class IOInventory implements IItemHandlerModifiable {
             int movable = Math.min(max - existing.getCount(), stack.getCount());
             if (!simulate) {
                 holder.itemStack.grow(movable);
-                getOwner().markForUpdate();
+                markOwnerForUpdate();
                 if(listener != null) {
                     listener.onChange();
                 }
@@ -155,7 +162,7 @@ public class IOInventory implements IItemHandlerModifiable {
             if (max >= stack.getCount()) {
                 if (!simulate) {
                     holder.itemStack = stack.copy();
-                    getOwner().markForUpdate();
+                    markOwnerForUpdate();
                     if(listener != null) {
                         listener.onChange();
                     }
@@ -166,7 +173,7 @@ public class IOInventory implements IItemHandlerModifiable {
                 copy.setCount(max);
                 if (!simulate) {
                     holder.itemStack = copy;
-                    getOwner().markForUpdate();
+                    markOwnerForUpdate();
                     if(listener != null) {
                         listener.onChange();
                     }
@@ -196,7 +203,7 @@ public class IOInventory implements IItemHandlerModifiable {
                 listener.onChange();
             }
         }
-        getOwner().markForUpdate();
+        markOwnerForUpdate();
         return extract;
     }
 
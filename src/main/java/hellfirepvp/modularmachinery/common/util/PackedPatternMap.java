@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.util;
+
+import net.minecraft.util.math.BlockPos;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: PackedPatternMap
+ * Date: 18.10.2026 / 00:30
+ */
+public class PackedPatternMap extends AbstractMap<BlockPos, BlockArray.BlockInformation> {
+
+    private static final int EMPTY = -1;
+
+    //Open addressing over packed positions; each slot only stores an index into the palette.
+    //Structures use a handful of distinct BlockInformation objects, so this stays far smaller than a HashMap.
+    private long[] keys;
+    private int[] paletteIndices;
+    private int size = 0;
+
+    private final List<BlockArray.BlockInformation> palette = new ArrayList<>();
+    private final Map<BlockArray.BlockInformation, Integer> paletteLookup = new IdentityHashMap<>();
+
+    private EntrySet entrySet = null;
+
+    public PackedPatternMap() {
+        this(16);
+    }
+
+    public PackedPatternMap(Map<BlockPos, BlockArray.BlockInformation> other) {
+        this(Math.max(16, other.size()));
+        putAll(other);
+    }
+
+    private PackedPatternMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 4 / 3) - 1) << 1;
+        this.keys = new long[capacity];
+        this.paletteIndices = new int[capacity];
+        Arrays.fill(this.paletteIndices, EMPTY);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof BlockPos && findSlot(((BlockPos) key).toLong()) >= 0;
+    }
+
+    @Override
+    public BlockArray.BlockInformation get(Object key) {
+        if(!(key instanceof BlockPos)) {
+            return null;
+        }
+        int slot = findSlot(((BlockPos) key).toLong());
+        return slot >= 0 ? palette.get(paletteIndices[slot]) : null;
+    }
+
+    @Override
+    public BlockArray.BlockInformation put(BlockPos key, BlockArray.BlockInformation value) {
+        Objects.requireNonNull(value);
+        long packed = key.toLong();
+        int index = paletteLookup.computeIfAbsent(value, v -> {
+            palette.add(v);
+            return palette.size() - 1;
+        });
+        int mask = keys.length - 1;
+        int slot = hash(packed) & mask;
+        while (paletteIndices[slot] != EMPTY) {
+            if(keys[slot] == packed) {
+                BlockArray.BlockInformation previous = palette.get(paletteIndices[slot]);
+                paletteIndices[slot] = index;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = packed;
+        paletteIndices[slot] = index;
+        size++;
+        if(size * 4 > keys.length * 3) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    @Override
+    public BlockArray.BlockInformation remove(Object key) {
+        if(!(key instanceof BlockPos)) {
+            return null;
+        }
+        int slot = findSlot(((BlockPos) key).toLong());
+        if(slot < 0) {
+            return null;
+        }
+        BlockArray.BlockInformation previous = palette.get(paletteIndices[slot]);
+        removeSlot(slot);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(paletteIndices, EMPTY);
+        size = 0;
+        palette.clear();
+        paletteLookup.clear();
+    }
+
+    @Override
+    @Nonnull
+    public Set<Entry<BlockPos, BlockArray.BlockInformation>> entrySet() {
+        if(entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int findSlot(long packed) {
+        int mask = keys.length - 1;
+        int slot = hash(packed) & mask;
+        while (paletteIndices[slot] != EMPTY) {
+            if(keys[slot] == packed) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    //Backward shift deletion, so lookups never have to skip over removed slots.
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (paletteIndices[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if(((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                paletteIndices[gap] = paletteIndices[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        paletteIndices[gap] = EMPTY;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldIndices = paletteIndices;
+        keys = new long[capacity];
+        paletteIndices = new int[capacity];
+        Arrays.fill(paletteIndices, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if(oldIndices[i] != EMPTY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (paletteIndices[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                paletteIndices[slot] = oldIndices[i];
+            }
+        }
+    }
+
+    private static int hash(long packed) {
+        packed ^= packed >>> 33;
+        packed *= 0xff51afd7ed558ccdL;
+        packed ^= packed >>> 33;
+        return (int) packed;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<BlockPos, BlockArray.BlockInformation>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PackedPatternMap.this.clear();
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<Entry<BlockPos, BlockArray.BlockInformation>> iterator() {
+            return new Iterator<Entry<BlockPos, BlockArray.BlockInformation>>() {
+
+                private int next = advance(0);
+
+                private int advance(int from) {
+                    while (from < keys.length && paletteIndices[from] == EMPTY) {
+                        from++;
+                    }
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < keys.length;
+                }
+
+                @Override
+                public Entry<BlockPos, BlockArray.BlockInformation> next() {
+                    if(!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int slot = next;
+                    next = advance(slot + 1);
+                    return new SimpleImmutableEntry<>(BlockPos.fromLong(keys[slot]), palette.get(paletteIndices[slot]));
+                }
+            };
+        }
+
+    }
+
+}
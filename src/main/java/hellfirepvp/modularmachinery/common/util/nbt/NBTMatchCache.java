@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * HellFirePvP / Modular Machinery 2018
+ *
+ * This project is licensed under GNU GENERAL PUBLIC LICENSE Version 3.
+ * The source code is available on github: https://github.com/HellFirePvP/ModularMachinery
+ * For further details, see the License file there.
+ ******************************************************************************/
+
+package hellfirepvp.modularmachinery.common.util.nbt;
+
+import hellfirepvp.modularmachinery.common.data.Config;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * This class is part of the Modular Machinery Mod
+ * The complete source code for this mod can be found on github.
+ * Class: NBTMatchCache
+ * Date: 17.10.2026 / 23:55
+ */
+public class NBTMatchCache {
+
+    private static final NBTMatchCache INSTANCE = new NBTMatchCache();
+
+    //Server thread only. Tiles are weakly referenced so removed or unloaded tiles don't linger here.
+    private final Map<TileEntity, CachedMatches> cache = new WeakHashMap<>();
+    private final IWorldEventListener listener = new UpdateListener();
+
+    private NBTMatchCache() {}
+
+    public static NBTMatchCache getCache() {
+        return INSTANCE;
+    }
+
+    public boolean matches(World world, TileEntity te, NBTTagCompound matchingTag) {
+        if(world.isRemote || Config.nbtMatchCacheTicks <= 0) {
+            return NBTMatchingHelper.matchNBTCompound(matchingTag, te.writeToNBT(new NBTTagCompound()));
+        }
+        long now = world.getTotalWorldTime();
+        CachedMatches cached = this.cache.get(te);
+        if(cached == null || now < cached.createdAt || now - cached.createdAt >= Config.nbtMatchCacheTicks) {
+            cached = new CachedMatches(now);
+            this.cache.put(te, cached);
+        }
+        Boolean result = cached.results.get(matchingTag);
+        if(result == null) {
+            //Serialized once per cache entry, no matter how many patterns check this tile.
+            if(cached.serialized == null) {
+                cached.serialized = te.writeToNBT(new NBTTagCompound());
+            }
+            result = NBTMatchingHelper.matchNBTCompound(matchingTag, cached.serialized);
+            cached.results.put(matchingTag, result);
+        }
+        return result;
+    }
+
+    public void invalidate(TileEntity te) {
+        if(!this.cache.isEmpty()) {
+            this.cache.remove(te);
+        }
+    }
+
+    private void invalidate(World world, BlockPos pos) {
+        if(this.cache.isEmpty() || !world.isBlockLoaded(pos)) {
+            return;
+        }
+        TileEntity te = world.getChunkFromBlockCoords(pos).getTileEntity(pos, Chunk.EnumCreateEntityType.CHECK);
+        if(te != null) {
+            this.cache.remove(te);
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldLoad(WorldEvent.Load event) {
+        World world = event.getWorld();
+        if(!world.isRemote) {
+            world.addEventListener(this.listener);
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        World world = event.getWorld();
+        if(!world.isRemote) {
+            world.removeEventListener(this.listener);
+            this.cache.keySet().removeIf(te -> te.getWorld() == world);
+        }
+    }
+
+    private static class CachedMatches {
+
+        private final long createdAt;
+        private final Map<NBTTagCompound, Boolean> results = new IdentityHashMap<>();
+        private NBTTagCompound serialized = null;
+
+        private CachedMatches(long createdAt) {
+            this.createdAt = createdAt;
+        }
+
+    }
+
+    //Most tiles send a block update once their data changed in a way that matters to anyone else.
+    private class UpdateListener implements IWorldEventListener {
+
+        @Override
+        public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+            invalidate(worldIn, pos);
+        }
+
+        @Override
+        public void notifyLightSet(BlockPos pos) {}
+
+        @Override
+        public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {}
+
+        @Override
+        public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch) {}
+
+        @Override
+        public void playRecord(SoundEvent soundIn, BlockPos pos) {}
+
+        @Override
+        public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+        @Override
+        public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+        @Override
+        public void onEntityAdded(Entity entityIn) {}
+
+        @Override
+        public void onEntityRemoved(Entity entityIn) {}
+
+        @Override
+        public void broadcastSound(int soundID, BlockPos pos, int data) {}
+
+        @Override
+        public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {}
+
+        @Override
+        public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+
+    }
+
+}